@@ -5,6 +5,7 @@ import fr.maxlego08.menu.api.attribute.Attribute;
 import fr.maxlego08.menu.api.attribute.IAttribute;
 import fr.maxlego08.menu.api.loader.MaterialLoader;
 import fr.maxlego08.menu.api.utils.MapConfiguration;
+import fr.maxlego08.menu.api.utils.PlaceholderTemplate;
 import fr.maxlego08.menu.api.utils.Placeholders;
 import fr.maxlego08.menu.exceptions.ItemEnchantException;
 import fr.maxlego08.menu.save.Config;
@@ -68,7 +69,31 @@ public class MenuItemStack extends ZUtils {
     private Firework firework;
     private LeatherArmor leatherArmor;
     private boolean needPlaceholderAPI = false;
+    // Set by setNeedPlaceholderAPI(true), every field is rendered for each player
+    private boolean forcePlaceholderAPI = false;
     private ItemStack cacheItemStack;
+    // Copies of the cache and of the prototype with the anti dupe tag, the tag is added once per item
+    private volatile ItemStack protectedCacheItemStack;
+    private volatile ItemStack protectedPrototypeItemStack;
+
+    // Templates compiled at load time for the local placeholders
+    private static final PlaceholderTemplate DEFAULT_MATERIAL = PlaceholderTemplate.compile("STONE");
+    private PlaceholderTemplate materialTemplate;
+    private PlaceholderTemplate targetPlayerTemplate;
+    private PlaceholderTemplate amountTemplate;
+    private PlaceholderTemplate displayNameTemplate;
+    private PlaceholderTemplate modelIDTemplate;
+    private List<PlaceholderTemplate> loreTemplates = new ArrayList<>();
+
+    // Fields which must be rendered for each player, the other fields are cached in the prototype.
+    // The flags are derived from all the fields by updateDynamicFields(), whatever the order of the setters.
+    private volatile ItemStack prototypeItemStack;
+    private boolean isDynamicMaterial = false;
+    private boolean isDynamicAmount = false;
+    private boolean isDynamicUrl = false;
+    private boolean isDynamicName = false;
+    private boolean isDynamicLore = false;
+    private boolean isDynamicModelID = false;
 
     public MenuItemStack(InventoryManager inventoryManager, String filePath, String path) {
         super();
@@ -141,24 +166,99 @@ public class MenuItemStack extends ZUtils {
     }
 
     public ItemStack build(Player player, boolean useCache, Placeholders placeholders) {
+        return build(player, useCache, placeholders, false);
+    }
+
+    /**
+     * Build the ItemStack
+     *
+     * @param player       The player
+     * @param useCache     If false, the ItemStack is always built again
+     * @param placeholders The local placeholders
+     * @param protect      If true, the ItemStack has the anti dupe tag. The tag is added once on the cached ItemStack
+     *                     and on the prototype, the ItemStacks built from them are already tagged.
+     * @return the ItemStack
+     */
+    public ItemStack build(Player player, boolean useCache, Placeholders placeholders, boolean protect) {
+
+        boolean isStatic = this.isStatic();
 
         // If we don’t need PlaceHolderApi, then we use the cache
-        if (!this.needPlaceholderAPI && this.cacheItemStack != null && Config.enableCacheItemStack && useCache) {
-            return this.cacheItemStack;
+        if (isStatic && this.cacheItemStack != null && Config.enableCacheItemStack && useCache) {
+            return protect ? this.getProtectedCacheItemStack() : this.cacheItemStack;
+        }
+
+        // If only the name, the lore or the model id need to be rendered, we clone the prototype built with the static fields
+        if (!isStatic && !this.isDynamicMaterial && !this.isDynamicAmount && !this.isDynamicUrl && Config.enableCacheItemStack && useCache) {
+
+            ItemStack prototype = protect ? this.protectedPrototypeItemStack : this.prototypeItemStack;
+            if (prototype == null) {
+                prototype = this.buildItemStack(player, placeholders, false);
+                if (prototype == null) return null;
+                if (protect) {
+                    prototype = this.protect(prototype);
+                    this.protectedPrototypeItemStack = prototype;
+                } else {
+                    this.prototypeItemStack = prototype;
+                }
+            }
+
+            ItemStack itemStack = prototype.clone();
+            if (this.isDynamicName || this.isDynamicLore || this.isDynamicModelID) {
+                ItemMeta itemMeta = itemStack.getItemMeta();
+                if (itemMeta != null) {
+                    OfflinePlayer offlinePlayer = this.getTargetOfflinePlayer(player, placeholders);
+                    this.applyMeta(itemMeta, player, offlinePlayer, placeholders, false, true);
+                    itemStack.setItemMeta(itemMeta);
+                }
+            }
+            return itemStack;
+        }
+
+        ItemStack itemStack = this.buildItemStack(player, placeholders, true);
+        if (itemStack != null && isStatic && Config.enableCacheItemStack) {
+            this.cacheItemStack = itemStack;
+            return protect ? this.getProtectedCacheItemStack() : itemStack;
+        }
+        return protect && itemStack != null ? this.protect(itemStack) : itemStack;
+    }
+
+    /**
+     * The cached ItemStack is also used without the tag, the tag is added on a copy
+     */
+    private ItemStack getProtectedCacheItemStack() {
+        ItemStack itemStack = this.protectedCacheItemStack;
+        if (itemStack == null) {
+            itemStack = this.protect(this.cacheItemStack.clone());
+            this.protectedCacheItemStack = itemStack;
         }
+        return itemStack;
+    }
+
+    private ItemStack protect(ItemStack itemStack) {
+        return MenuPlugin.getInstance().getDupeManager().protectItem(itemStack);
+    }
+
+    /**
+     * Build a new ItemStack
+     *
+     * @param player         The player
+     * @param placeholders   The local placeholders
+     * @param includeDynamic If false, the dynamic name, lore and model id are not applied, the ItemStack is used as a prototype
+     * @return the ItemStack
+     */
+    private ItemStack buildItemStack(Player player, Placeholders placeholders, boolean includeDynamic) {
 
         ItemStack itemStack = null;
         Material material = null;
 
         // If the material is null, then by default it will be stone, stone is a
         // material present in all versions, so no conflict problem.
-        if (this.material == null) {
-            this.material = "STONE";
-        }
+        PlaceholderTemplate materialTemplate = this.material == null ? DEFAULT_MATERIAL : this.materialTemplate;
 
-        OfflinePlayer offlinePlayer = this.targetPlayer != null ? Bukkit.getOfflinePlayer(papi(placeholders.parse(this.targetPlayer), player, false)) : null;
+        OfflinePlayer offlinePlayer = this.getTargetOfflinePlayer(player, placeholders);
 
-        String papiMaterial = papi(placeholders.parse(this.material), offlinePlayer == null ? player : offlinePlayer, true);
+        String papiMaterial = papi(placeholders.parse(materialTemplate), offlinePlayer == null ? player : offlinePlayer, true);
         int amount = this.parseAmount(offlinePlayer == null ? player : offlinePlayer, placeholders);
 
         try {
@@ -237,23 +337,10 @@ public class MenuItemStack extends ZUtils {
 
         Material finalMaterial = itemStack.getType();
         ItemMeta itemMeta = itemStack.getItemMeta();
-        String locale = findPlayerLocale(player);
 
         if (itemMeta != null) {
-            if (this.displayName != null) {
-                try {
-                    String displayName = locale == null ? this.displayName : this.translatedDisplayName.getOrDefault(locale, this.displayName);
-                    Meta.meta.updateDisplayName(itemMeta, placeholders.parse(displayName), offlinePlayer == null ? player : offlinePlayer);
-                } catch (Exception exception) {
-                    Logger.info("Error with update display name for item " + path + " in file " + filePath + " (" + player + ", " + this.displayName + ")", Logger.LogType.ERROR);
-                    exception.printStackTrace();
-                }
-            }
 
-            if (!this.lore.isEmpty()) {
-                List<String> lore = locale == null ? this.lore : this.translatedLore.getOrDefault(locale, this.lore);
-                Meta.meta.updateLore(itemMeta, placeholders.parse(lore), offlinePlayer == null ? player : offlinePlayer);
-            }
+            this.applyMeta(itemMeta, player, offlinePlayer, placeholders, true, includeDynamic);
 
             if (this.isGlowing) {
 
@@ -261,13 +348,6 @@ public class MenuItemStack extends ZUtils {
                 itemMeta.addItemFlags(ItemFlag.HIDE_ENCHANTS);
             }
 
-            try {
-
-                int customModelData = Integer.parseInt(papi(placeholders.parse(this.modelID), offlinePlayer == null ? player : offlinePlayer, true));
-                if (customModelData != 0) itemMeta.setCustomModelData(customModelData);
-            } catch (NumberFormatException ignored) {
-            }
-
             this.enchantments.forEach((enchantment, level) -> {
                 if (finalMaterial.equals(Material.ENCHANTED_BOOK)) {
                     ((EnchantmentStorageMeta) itemMeta).addStoredEnchant(enchantment, level, true);
@@ -285,10 +365,66 @@ public class MenuItemStack extends ZUtils {
             attributeApplier.apply(itemStack);
         }
 
-        if (!needPlaceholderAPI && Config.enableCacheItemStack) this.cacheItemStack = itemStack;
         return itemStack;
     }
 
+    /**
+     * Apply the display name, the lore and the model id
+     *
+     * @param itemMeta       The meta to update
+     * @param player         The player
+     * @param offlinePlayer  The target player, can be null
+     * @param placeholders   The local placeholders
+     * @param includeStatic  Apply the fields without placeholders
+     * @param includeDynamic Apply the fields with placeholders or translations
+     */
+    private void applyMeta(ItemMeta itemMeta, Player player, OfflinePlayer offlinePlayer, Placeholders placeholders, boolean includeStatic, boolean includeDynamic) {
+
+        OfflinePlayer target = offlinePlayer == null ? player : offlinePlayer;
+        String locale = this.hasTranslation() ? findPlayerLocale(player) : null;
+
+        if (this.displayName != null && (this.isDynamicName ? includeDynamic : includeStatic)) {
+            try {
+                String translatedDisplayName = locale == null ? null : this.translatedDisplayName.get(locale);
+                String displayName = translatedDisplayName == null ? placeholders.parse(this.displayNameTemplate) : placeholders.parse(translatedDisplayName);
+                Meta.meta.updateDisplayName(itemMeta, displayName, target);
+            } catch (Exception exception) {
+                Logger.info("Error with update display name for item " + path + " in file " + filePath + " (" + player + ", " + this.displayName + ")", Logger.LogType.ERROR);
+                exception.printStackTrace();
+            }
+        }
+
+        if (!this.lore.isEmpty() && (this.isDynamicLore ? includeDynamic : includeStatic)) {
+            List<String> translatedLore = locale == null ? null : this.translatedLore.get(locale);
+            List<String> lore = translatedLore == null ? placeholders.parseTemplates(this.loreTemplates) : placeholders.parse(translatedLore);
+            Meta.meta.updateLore(itemMeta, lore, target);
+        }
+
+        if (this.isDynamicModelID ? includeDynamic : includeStatic) {
+            try {
+
+                int customModelData = Integer.parseInt(papi(placeholders.parse(this.modelIDTemplate), target, true));
+                if (customModelData != 0) itemMeta.setCustomModelData(customModelData);
+            } catch (NumberFormatException ignored) {
+            }
+        }
+    }
+
+    private OfflinePlayer getTargetOfflinePlayer(Player player, Placeholders placeholders) {
+        return this.targetPlayer != null ? Bukkit.getOfflinePlayer(papi(placeholders.parse(this.targetPlayerTemplate), player, false)) : null;
+    }
+
+    /**
+     * @return true if the ItemStack is the same for all the players, without placeholder or translation
+     */
+    public boolean isStatic() {
+        return !this.needPlaceholderAPI && !this.hasTranslation();
+    }
+
+    private boolean hasTranslation() {
+        return !this.translatedDisplayName.isEmpty() || !this.translatedLore.isEmpty();
+    }
+
 
     /**
      * @return the target player
@@ -302,6 +438,7 @@ public class MenuItemStack extends ZUtils {
      */
     public void setTargetPlayer(String targetPlayer) {
         this.targetPlayer = targetPlayer;
+        this.targetPlayerTemplate = PlaceholderTemplate.compile(targetPlayer);
     }
 
     /**
@@ -316,6 +453,8 @@ public class MenuItemStack extends ZUtils {
      */
     public void setMaterial(String material) {
         this.material = material;
+        this.materialTemplate = PlaceholderTemplate.compile(material);
+        this.updateDynamicFields();
         this.updatePlaceholder(material);
     }
 
@@ -331,6 +470,8 @@ public class MenuItemStack extends ZUtils {
      */
     public void setAmount(String amount) {
         this.amount = amount;
+        this.amountTemplate = PlaceholderTemplate.compile(amount);
+        this.updateDynamicFields();
         this.updatePlaceholder(amount);
     }
 
@@ -347,6 +488,7 @@ public class MenuItemStack extends ZUtils {
      */
     public void setUrl(String url) {
         this.url = url;
+        this.updateDynamicFields();
     }
 
     /**
@@ -403,6 +545,8 @@ public class MenuItemStack extends ZUtils {
      */
     public void setLore(List<String> lore) {
         this.lore = lore;
+        this.loreTemplates = lore.stream().map(PlaceholderTemplate::compile).collect(Collectors.toList());
+        this.updateDynamicFields();
         lore.forEach(this::updatePlaceholder);
     }
 
@@ -432,6 +576,8 @@ public class MenuItemStack extends ZUtils {
      */
     public void setDisplayName(String displayName) {
         this.displayName = displayName;
+        this.displayNameTemplate = PlaceholderTemplate.compile(displayName);
+        this.updateDynamicFields();
         this.updatePlaceholder(displayName);
     }
 
@@ -461,6 +607,8 @@ public class MenuItemStack extends ZUtils {
      */
     public void setModelID(String modelID) {
         this.modelID = modelID;
+        this.modelIDTemplate = PlaceholderTemplate.compile(modelID);
+        this.updateDynamicFields();
         this.updatePlaceholder(modelID);
     }
 
@@ -469,6 +617,8 @@ public class MenuItemStack extends ZUtils {
      */
     public void setModelID(int modelID) {
         this.modelID = String.valueOf(modelID);
+        this.modelIDTemplate = PlaceholderTemplate.compile(this.modelID);
+        this.updateDynamicFields();
     }
 
     /**
@@ -561,7 +711,7 @@ public class MenuItemStack extends ZUtils {
     public int parseAmount(Player player, Placeholders placeholders) {
         int amount = 1;
         try {
-            amount = Integer.parseInt(papi(placeholders.parse(this.amount), player, true));
+            amount = Integer.parseInt(papi(placeholders.parse(this.amountTemplate), player, true));
         } catch (Exception ignored) {
         }
         return amount;
@@ -570,7 +720,7 @@ public class MenuItemStack extends ZUtils {
     public int parseAmount(OfflinePlayer offlinePlayer, Placeholders placeholders) {
         int amount = 1;
         try {
-            amount = Integer.parseInt(papi(placeholders.parse(this.amount), offlinePlayer, true));
+            amount = Integer.parseInt(papi(placeholders.parse(this.amountTemplate), offlinePlayer, true));
         } catch (Exception ignored) {
         }
         return amount;
@@ -586,8 +736,34 @@ public class MenuItemStack extends ZUtils {
         needPlaceholderAPI = string.contains("%");
     }
 
+    /**
+     * Let's know if a field must be rendered for each player
+     *
+     * @param string - Current string
+     * @return true if the string contains a placeholder
+     */
+    private boolean isDynamic(String string) {
+        return string != null && string.contains("%");
+    }
+
+    /**
+     * Find the fields which must be rendered for each player: the fields with a placeholder, the name and the lore
+     * when they have a translation, and every field when PlaceholderAPI is forced
+     */
+    private void updateDynamicFields() {
+        boolean all = this.forcePlaceholderAPI;
+        this.isDynamicMaterial = all || this.isDynamic(this.material);
+        this.isDynamicAmount = all || this.isDynamic(this.amount);
+        this.isDynamicUrl = all || this.isDynamic(this.url);
+        this.isDynamicName = all || this.isDynamic(this.displayName) || !this.translatedDisplayName.isEmpty();
+        this.isDynamicLore = all || this.lore.stream().anyMatch(this::isDynamic) || !this.translatedLore.isEmpty();
+        this.isDynamicModelID = all || this.isDynamic(this.modelID);
+    }
+
     public void setNeedPlaceholderAPI(boolean needPlaceholderAPI) {
         this.needPlaceholderAPI = needPlaceholderAPI;
+        this.forcePlaceholderAPI = needPlaceholderAPI;
+        this.updateDynamicFields();
     }
 
     public void setTypeMapAccessor(MapConfiguration configuration) {
@@ -750,6 +926,7 @@ public class MenuItemStack extends ZUtils {
 
     public void setTranslatedDisplayName(Map<String, String> translatedDisplayName) {
         this.translatedDisplayName = translatedDisplayName;
+        this.updateDynamicFields();
     }
 
     public Map<String, List<String>> getTranslatedLore() {
@@ -758,5 +935,6 @@ public class MenuItemStack extends ZUtils {
 
     public void setTranslatedLore(Map<String, List<String>> translatedLore) {
         this.translatedLore = translatedLore;
+        this.updateDynamicFields();
     }
 }
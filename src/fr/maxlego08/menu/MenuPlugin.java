@@ -11,9 +11,12 @@ import fr.maxlego08.menu.api.scheduler.ZScheduler;
 import fr.maxlego08.menu.api.website.WebsiteManager;
 import fr.maxlego08.menu.command.VCommandManager;
 import fr.maxlego08.menu.command.commands.CommandMenu;
+import fr.maxlego08.menu.dupe.DupeExposure;
 import fr.maxlego08.menu.dupe.DupeListener;
+import fr.maxlego08.menu.dupe.DupeNotifier;
 import fr.maxlego08.menu.dupe.NMSDupeManager;
 import fr.maxlego08.menu.dupe.PDCDupeManager;
+import fr.maxlego08.menu.inventory.RenderStatistics;
 import fr.maxlego08.menu.inventory.VInventoryManager;
 import fr.maxlego08.menu.inventory.inventories.InventoryDefault;
 import fr.maxlego08.menu.listener.AdapterListener;
@@ -34,6 +37,7 @@ import fr.maxlego08.menu.save.Config;
 import fr.maxlego08.menu.save.MessageLoader;
 import fr.maxlego08.menu.scheduler.BukkitScheduler;
 import fr.maxlego08.menu.scheduler.FoliaScheduler;
+import fr.maxlego08.menu.scheduler.RefreshScheduler;
 import fr.maxlego08.menu.website.Token;
 import fr.maxlego08.menu.website.ZWebsiteManager;
 import fr.maxlego08.menu.zcore.ZPlugin;
@@ -75,9 +79,13 @@ public class MenuPlugin extends ZPlugin {
     private final ZWebsiteManager websiteManager = new ZWebsiteManager(this);
     private final InventoriesPlayer inventoriesPlayer = new ZInventoriesPlayer(this);
     private final PatternManager patternManager = new ZPatternManager(this);
+    private final RenderStatistics renderStatistics = new RenderStatistics();
+    private final DupeExposure dupeExposure = new DupeExposure();
     private CommandMenu commandMenu;
     private ZScheduler scheduler;
+    private RefreshScheduler refreshScheduler;
     private DupeManager dupeManager;
+    private DupeNotifier dupeNotifier;
 
     public static boolean isFolia() {
         try {
@@ -101,6 +109,8 @@ public class MenuPlugin extends ZPlugin {
                 ? new FoliaScheduler(this)
                 : new BukkitScheduler(this);
 
+        this.refreshScheduler = new RefreshScheduler(this);
+
         this.dupeManager = NmsVersion.nmsVersion.isPdcVersion() ? new PDCDupeManager(this) : new NMSDupeManager();
 
         this.preEnable();
@@ -162,6 +172,7 @@ public class MenuPlugin extends ZPlugin {
         this.addListener(this.vinventoryManager);
         this.addListener(this.inventoriesPlayer);
         this.addSimpleListener(this.inventoryManager);
+        this.addSimpleListener((ZDataManager) this.dataManager);
 
         /* Add Saver */
         this.addSave(this.messageLoader);
@@ -223,7 +234,8 @@ public class MenuPlugin extends ZPlugin {
         Bukkit.getMessenger().registerOutgoingPluginChannel(this, "BungeeCord");
 
         if (Config.enableAntiDupe) {
-            this.addListener(new DupeListener(this.scheduler, this.dupeManager));
+            this.dupeNotifier = new DupeNotifier(this);
+            this.addListener(new DupeListener(this, this.dupeManager, this.dupeExposure, this.dupeNotifier));
         }
 
         if (Config.enableDebug) {
@@ -240,6 +252,8 @@ public class MenuPlugin extends ZPlugin {
         this.websiteManager.loadPlaceholders();
         this.dataManager.loadDefaultValues();
 
+        this.refreshScheduler.start();
+
         this.postEnable();
     }
 
@@ -249,9 +263,11 @@ public class MenuPlugin extends ZPlugin {
         this.preDisable();
 
         this.vinventoryManager.close();
+        this.refreshScheduler.stop();
 
         Config.getInstance().save(getPersist());
         this.getSavers().forEach(saver -> saver.save(this.getPersist()));
+        ((ZDataManager) this.dataManager).close();
         if (Token.token != null) {
             Token.getInstance().save(this.getPersist());
         }
@@ -327,6 +343,14 @@ public class MenuPlugin extends ZPlugin {
         return scheduler;
     }
 
+    public RefreshScheduler getRefreshScheduler() {
+        return refreshScheduler;
+    }
+
+    public RenderStatistics getRenderStatistics() {
+        return renderStatistics;
+    }
+
     public InventoriesPlayer getInventoriesPlayer() {
         return inventoriesPlayer;
     }
@@ -338,4 +362,15 @@ public class MenuPlugin extends ZPlugin {
     public DupeManager getDupeManager() {
         return dupeManager;
     }
+
+    public DupeExposure getDupeExposure() {
+        return dupeExposure;
+    }
+
+    /**
+     * @return the anti dupe Discord notifier, null if the anti dupe is disabled
+     */
+    public DupeNotifier getDupeNotifier() {
+        return dupeNotifier;
+    }
 }
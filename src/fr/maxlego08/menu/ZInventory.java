@@ -8,6 +8,7 @@ import fr.maxlego08.menu.api.players.inventory.InventoriesPlayer;
 import fr.maxlego08.menu.api.requirement.Requirement;
 import fr.maxlego08.menu.api.utils.OpenWithItem;
 import fr.maxlego08.menu.api.utils.Placeholders;
+import fr.maxlego08.menu.inventory.PageLayout;
 import fr.maxlego08.menu.inventory.inventories.InventoryDefault;
 import fr.maxlego08.menu.zcore.utils.ZUtils;
 import fr.maxlego08.menu.zcore.utils.inventory.InventoryResult;
@@ -19,8 +20,8 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -33,6 +34,9 @@ public class ZInventory extends ZUtils implements Inventory {
     private final String fileName;
     private final int size;
     private final List<Button> buttons;
+    private final PageLayout pageLayout;
+    private final List<PaginateButton> paginateButtons;
+    private final Map<Pattern, PageLayout> patternLayouts = Collections.synchronizedMap(new IdentityHashMap<>());
     private Map<String, String> translatedNames = new HashMap<>();
     private List<Pattern> patterns;
     private MenuItemStack fillItemStack;
@@ -56,6 +60,9 @@ public class ZInventory extends ZUtils implements Inventory {
         this.fileName = fileName;
         this.size = size;
         this.buttons = buttons;
+        // The buttons are indexed by page once, an open only reads the buttons of its page
+        this.pageLayout = new PageLayout(size, buttons);
+        this.paginateButtons = buttons.stream().filter(button -> button instanceof PaginateButton).map(PaginateButton.class::cast).collect(Collectors.toList());
     }
 
     @Override
@@ -110,20 +117,32 @@ public class ZInventory extends ZUtils implements Inventory {
 
         int maxPage = 1;
 
-        List<Button> buttons = new ArrayList<>();
-        buttons.addAll(this.buttons);
-        buttons.addAll(patterns.stream().flatMap(pattern -> pattern.getButtons().stream()).collect(Collectors.toList()));
+        boolean hasButton = !this.pageLayout.isEmpty();
+        int maxSlot = this.pageLayout.getMaxSlot();
+        for (Pattern pattern : patterns) {
+            PageLayout layout = this.getPatternLayout(pattern);
+            if (layout.isEmpty()) continue;
+            hasButton = true;
+            maxSlot = Math.max(maxSlot, layout.getMaxSlot());
+        }
 
-        Optional<Integer> optional = buttons.stream().map(Button::getSlot).max(Integer::compare);
-        if (optional.isPresent()) {
-            int maxSlot = optional.get();
+        if (hasButton) {
             maxPage = (maxSlot / this.size) + 1;
         }
 
-        Optional<PaginateButton> optionalPaginate = this.buttons.stream().filter(button -> button instanceof PaginateButton).map(e -> (PaginateButton) e).sorted(Comparator.comparingInt(e -> ((PaginateButton) e).getPaginationSize(player)).reversed()).findFirst();
-        if (optionalPaginate.isPresent()) {
-            PaginateButton paginateButton = optionalPaginate.get();
-            maxPage = (int) Math.ceil((double) paginateButton.getPaginationSize(player) / paginateButton.getSlots().size());
+        // Only the size of the paginate buttons depends on the player
+        PaginateButton paginateButton = null;
+        int paginationSize = 0;
+        for (PaginateButton button : this.paginateButtons) {
+            int currentSize = button.getPaginationSize(player);
+            if (paginateButton == null || currentSize > paginationSize) {
+                paginateButton = button;
+                paginationSize = currentSize;
+            }
+        }
+
+        if (paginateButton != null) {
+            maxPage = (int) Math.ceil((double) paginationSize / paginateButton.getSlots().size());
         }
 
         return maxPage;
@@ -131,19 +150,23 @@ public class ZInventory extends ZUtils implements Inventory {
 
     @Override
     public List<Button> sortButtons(int page, Object... objects) {
-        return this.buttons.stream().filter(button -> {
-            int slot = button.getRealSlot(this.size, page);
-            return slot >= 0 && slot < this.size;
-        }).collect(Collectors.toList());
+        return new ArrayList<>(this.pageLayout.getButtons(page));
     }
 
     @Override
     public List<Button> sortPatterns(Pattern pattern, int page, Object... objects) {
         if (!pattern.enableMultiPage()) return new ArrayList<>(pattern.getButtons());
-        return pattern.getButtons().stream().filter(button -> {
-            int slot = button.getRealSlot(this.size, page);
-            return slot >= 0 && slot < this.size;
-        }).collect(Collectors.toList());
+        return new ArrayList<>(this.getPatternLayout(pattern).getButtons(page));
+    }
+
+    /**
+     * The layout of a pattern is computed the first time the pattern is used with this inventory
+     *
+     * @param pattern The pattern
+     * @return the buttons of the pattern indexed by page
+     */
+    private PageLayout getPatternLayout(Pattern pattern) {
+        return this.patternLayouts.computeIfAbsent(pattern, p -> new PageLayout(this.size, p.getButtons()));
     }
 
     @Override
@@ -263,6 +286,7 @@ public class ZInventory extends ZUtils implements Inventory {
 
     public void setPatterns(List<Pattern> patterns) {
         this.patterns = patterns;
+        this.patternLayouts.clear();
     }
 
     public void setTranslatedNames(Map<String, String> translatedNames) {
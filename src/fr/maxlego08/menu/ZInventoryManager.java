@@ -23,6 +23,7 @@ import fr.maxlego08.menu.button.loader.NoneLoader;
 import fr.maxlego08.menu.button.loader.PreviousLoader;
 import fr.maxlego08.menu.exceptions.InventoryException;
 import fr.maxlego08.menu.exceptions.InventoryFileNotFound;
+import fr.maxlego08.menu.inventory.OpenWithItemIndex;
 import fr.maxlego08.menu.inventory.inventories.InventoryDefault;
 import fr.maxlego08.menu.itemstack.FullSimilar;
 import fr.maxlego08.menu.itemstack.LoreSimilar;
@@ -112,6 +113,8 @@ public class ZInventoryManager extends ZUtils implements InventoryManager {
 
     private final Map<UUID, Integer> playerPages = new HashMap<>();
     private final Map<UUID, Integer> playerMaxPages = new HashMap<>();
+    // Built on the first interact after a change of the inventories
+    private volatile OpenWithItemIndex openWithItemIndex;
 
     public ZInventoryManager(MenuPlugin plugin) {
         super();
@@ -163,6 +166,7 @@ public class ZInventoryManager extends ZUtils implements InventoryManager {
         List<Inventory> inventories = this.inventories.getOrDefault(plugin.getName(), new ArrayList<>());
         inventories.add(inventory);
         this.inventories.put(plugin.getName(), inventories);
+        this.openWithItemIndex = null;
 
         if (Config.enableInformationMessage) {
             Logger.info(file.getPath() + " loaded successfully !", LogType.INFO);
@@ -212,6 +216,7 @@ public class ZInventoryManager extends ZUtils implements InventoryManager {
         List<Inventory> inventories = this.inventories.getOrDefault(pluginName, new ArrayList<>());
         inventories.remove(inventory);
         this.inventories.put(pluginName, inventories);
+        this.openWithItemIndex = null;
     }
 
     @Override
@@ -227,6 +232,7 @@ public class ZInventoryManager extends ZUtils implements InventoryManager {
     @Override
     public void deleteInventories(Plugin plugin) {
         this.inventories.remove(plugin.getName());
+        this.openWithItemIndex = null;
     }
 
     @Override
@@ -632,7 +638,16 @@ public class ZInventoryManager extends ZUtils implements InventoryManager {
 
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onPlayerInteract(PlayerInteractEvent event) {
-        for (Inventory inventory : getInventories()) {
+
+        if (event.getItem() == null) return;
+
+        OpenWithItemIndex index = this.openWithItemIndex;
+        if (index == null) {
+            index = new OpenWithItemIndex(getInventories(), event.getPlayer());
+            this.openWithItemIndex = index;
+        }
+
+        for (Inventory inventory : index.getCandidates(event.getItem())) {
             OpenWithItem openWithItem = inventory.getOpenWithItem();
             if (openWithItem != null && openWithItem.shouldTrigger(event)) {
                 openInventory(event.getPlayer(), inventory);
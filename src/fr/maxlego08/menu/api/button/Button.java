@@ -314,4 +314,27 @@ public interface Button extends PermissibleButton, PlaceholderButton, SlotButton
 
     boolean isOpenAsync();
 
+    /**
+     * Checks if the button must receive every click of the inventory in {@link #onInventoryClick}.
+     * Only the buttons returning true are called, a click on a slot is otherwise only sent to the button of this slot.
+     *
+     * By default a button receives all the clicks, like before the clicks were dispatched by slot.
+     *
+     * @return true if the button listens to all the clicks, false otherwise
+     */
+    default boolean hasGlobalClick() {
+        return true;
+    }
+
+    /**
+     * Checks if the button must receive every drag of the inventory in {@link #onDrag}.
+     *
+     * By default a button receives all the drags.
+     *
+     * @return true if the button listens to all the drags, false otherwise
+     */
+    default boolean hasGlobalDrag() {
+        return true;
+    }
+
 }
@@ -2,6 +2,7 @@ package fr.maxlego08.menu.api.event;
 
 import fr.maxlego08.menu.api.event.events.ButtonLoadEvent;
 import fr.maxlego08.menu.api.event.events.InventoryLoadEvent;
+import fr.maxlego08.menu.api.event.events.PlayerDataExpireEvent;
 import fr.maxlego08.menu.api.event.events.PlayerOpenInventoryEvent;
 
 /**
@@ -35,4 +36,13 @@ public abstract class FastEvent {
     public void onPlayerOpenInventory(PlayerOpenInventoryEvent event){
 
     }
+
+    /**
+     * Event when an expired data is removed from a player, called asynchronously
+     *
+     * @param event {@link PlayerDataExpireEvent}
+     */
+    public void onPlayerDataExpire(PlayerDataExpireEvent event){
+
+    }
 }
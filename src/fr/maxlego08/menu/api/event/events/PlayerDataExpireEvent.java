@@ -0,0 +1,29 @@
+package fr.maxlego08.menu.api.event.events;
+
+import fr.maxlego08.menu.api.event.MenuEvent;
+import fr.maxlego08.menu.api.players.Data;
+
+import java.util.UUID;
+
+/**
+ * Called asynchronously when an expired data is removed from a player.
+ */
+public class PlayerDataExpireEvent extends MenuEvent {
+
+    private final UUID uniqueId;
+    private final Data data;
+
+    public PlayerDataExpireEvent(UUID uniqueId, Data data) {
+        super(true);
+        this.uniqueId = uniqueId;
+        this.data = data;
+    }
+
+    public UUID getUniqueId() {
+        return uniqueId;
+    }
+
+    public Data getData() {
+        return data;
+    }
+}
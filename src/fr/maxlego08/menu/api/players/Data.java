@@ -19,6 +19,16 @@ public interface Data {
      */
     Object getValue();
 
+    /**
+     * The type of the value, a LONG or a DOUBLE can be modified with {@link #add(int)} and {@link #remove(int)}.
+     * By default the type is deduced from the value with {@link DataType#of(Object)}.
+     *
+     * @return type
+     */
+    default DataType getType() {
+        return DataType.of(this.getValue());
+    }
+
     /**
      * Permet de savoir quand la valeur doit expirer. If the value is 0 then it never exits
      *
@@ -0,0 +1,74 @@
+package fr.maxlego08.menu.api.players;
+
+import java.util.UUID;
+
+/**
+ * <p>Changes made by {@link DataManager#batch(java.util.function.Consumer)}, they are applied together once the batch
+ * is complete. The batch is all or nothing: if an amount is added to a value which is not a number, no change is
+ * applied.</p>
+ */
+public interface DataBatch {
+
+    /**
+     * Set a data, the previous data of the key is replaced
+     *
+     * @param uniqueId Player {@link UUID}
+     * @param data     New data
+     */
+    void addData(UUID uniqueId, Data data);
+
+    /**
+     * Add a number to a data, the data is created if the player doesn't have it
+     *
+     * @param uniqueId Player {@link UUID}
+     * @param key      Data key
+     * @param amount   The amount to add
+     */
+    void add(UUID uniqueId, String key, long amount);
+
+    /**
+     * Add a decimal number to a data, the data is created if the player doesn't have it and becomes a DOUBLE
+     *
+     * @param uniqueId Player {@link UUID}
+     * @param key      Data key
+     * @param amount   The amount to add
+     */
+    void add(UUID uniqueId, String key, double amount);
+
+    /**
+     * Subtract a number to a data, the data is created if the player doesn't have it
+     *
+     * @param uniqueId Player {@link UUID}
+     * @param key      Data key
+     * @param amount   The amount to subtract
+     */
+    void subtract(UUID uniqueId, String key, long amount);
+
+    /**
+     * Subtract a decimal number to a data, the data is created if the player doesn't have it and becomes a DOUBLE
+     *
+     * @param uniqueId Player {@link UUID}
+     * @param key      Data key
+     * @param amount   The amount to subtract
+     */
+    void subtract(UUID uniqueId, String key, double amount);
+
+    /**
+     * @param uniqueId Player {@link UUID}
+     * @param key      Data key
+     */
+    void removeData(UUID uniqueId, String key);
+
+    /**
+     * Clear player's data
+     *
+     * @param uniqueId Player {@link UUID}
+     */
+    void clearPlayer(UUID uniqueId);
+
+    /**
+     * @return the number of changes in this batch
+     */
+    int size();
+
+}
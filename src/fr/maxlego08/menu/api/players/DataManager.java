@@ -1,9 +1,13 @@
 package fr.maxlego08.menu.api.players;
 
 import fr.maxlego08.menu.zcore.utils.storage.Savable;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * <p>Player Data Management</p>
@@ -17,11 +21,44 @@ public interface DataManager extends Savable {
     Optional<PlayerData> getPlayer(UUID uniqueId);
 
     /**
+     * Get a player without blocking the calling thread, a player who is not in memory is loaded by the storage.
+     *
+     * @param uniqueId Player {@link UUID}
+     * @return the future player, it can be completed on another thread
+     */
+    default CompletableFuture<Optional<PlayerData>> getPlayerAsync(UUID uniqueId) {
+        return CompletableFuture.completedFuture(this.getPlayer(uniqueId));
+    }
+
+    /**
+     * Get a player, the player is created if they have no data.
+     * <p>
+     * On the main thread, a player whose data is not loaded yet is returned without waiting, with only the changes
+     * made since. These changes replace the stored values of the same keys when the player is loaded, so to add an
+     * amount to a stored value use {@link #batch(Consumer)}.
+     * </p>
+     *
      * @param uniqueId Player {@link UUID}
      * @return PlayerData
      */
     PlayerData getOrCreate(UUID uniqueId);
 
+    /**
+     * Find the uuid of a player by name without a request to Mojang, the name can also be a uuid
+     *
+     * @param name Player name
+     * @return optional
+     */
+    default Optional<UUID> getUniqueId(String name) {
+        Player player = Bukkit.getPlayerExact(name);
+        if (player != null) return Optional.of(player.getUniqueId());
+        try {
+            return Optional.of(UUID.fromString(name));
+        } catch (IllegalArgumentException exception) {
+            return Optional.empty();
+        }
+    }
+
     /**
      * @param uniqueId Player {@link UUID}
      * @param data New data
@@ -52,6 +89,23 @@ public interface DataManager extends Savable {
      */
     void clearPlayer(UUID uniqueId);
 
+    /**
+     * Apply many changes at once. The changes are collected by the consumer then applied together, nothing is applied
+     * if the consumer throws an exception. They are written to the storage in a single write and saved once.
+     *
+     * The players who are not in memory are loaded first, the batch is then applied without blocking the caller.
+     * Nothing is applied either if an amount is added to a value which is not a number.
+     *
+     * @param consumer Consumer which adds the changes to the batch
+     * @return the future number of changes, completed once the batch is applied. It completes exceptionally with an
+     * {@link IllegalArgumentException} if a change can't be applied.
+     */
+    default CompletableFuture<Integer> batch(Consumer<DataBatch> consumer) {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        future.completeExceptionally(new UnsupportedOperationException("The batches are not supported by " + this.getClass().getName()));
+        return future;
+    }
+
     void loadDefaultValues();
 
 }
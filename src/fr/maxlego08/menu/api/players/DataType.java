@@ -0,0 +1,46 @@
+package fr.maxlego08.menu.api.players;
+
+/**
+ * Type of the value of a {@link Data}
+ */
+public enum DataType {
+
+    LONG,
+    DOUBLE,
+    STRING,
+    BOOLEAN,
+
+    ;
+
+    /**
+     * Deduce the type of a value. An integer is a LONG and a number with a decimal part, even if it is zero like
+     * 5.0, is a DOUBLE. A string is parsed only if it is written exactly like the parsed number, so "007" stays a
+     * string and "5.0" is a DOUBLE.
+     *
+     * @param value The value
+     * @return the type
+     */
+    public static DataType of(Object value) {
+
+        if (value instanceof Boolean) return BOOLEAN;
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return LONG;
+        }
+        if (value instanceof Number) return DOUBLE;
+        if (value == null) return STRING;
+
+        String string = value.toString();
+        try {
+            long number = Long.parseLong(string);
+            if (Long.toString(number).equals(string)) return LONG;
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            double number = Double.parseDouble(string);
+            if (Double.toString(number).equals(string)) return DOUBLE;
+        } catch (NumberFormatException ignored) {
+        }
+        return STRING;
+    }
+
+}
@@ -1,6 +1,7 @@
 package fr.maxlego08.menu.api.scheduler;
 
 import org.bukkit.Location;
+import org.bukkit.entity.Entity;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nullable;
@@ -25,6 +26,18 @@ public interface ZScheduler {
      */
     @NotNull ZScheduler runTask(@Nullable Location location, Runnable task);
 
+    /**
+     * Runs the task on the thread which owns the entity, on Folia the task follows the entity between regions.
+     * Unlike {@link #runTask(Location, Runnable)}, the location of the entity is not read by the calling thread.
+     *
+     * @param entity The entity.
+     * @param task   The task to run.
+     * @return The created {@link ZScheduler}.
+     */
+    default @NotNull ZScheduler runTaskAtEntity(@NotNull Entity entity, Runnable task) {
+        return this.runTask((Location) null, task);
+    }
+
     /**
      * Runs the task asynchronously.
      *
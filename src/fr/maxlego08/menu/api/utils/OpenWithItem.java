@@ -2,6 +2,7 @@ package fr.maxlego08.menu.api.utils;
 
 import fr.maxlego08.menu.MenuItemStack;
 import fr.maxlego08.menu.api.itemstack.ItemStackSimilar;
+import org.bukkit.entity.Player;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.inventory.ItemStack;
@@ -16,6 +17,8 @@ public class OpenWithItem {
     private final MenuItemStack menuItemStack;
     private final List<Action> actions;
     private final ItemStackSimilar itemStackSimilar;
+    // Built once when the item is the same for all the players
+    private volatile ItemStack triggerItemStack;
 
     public OpenWithItem(MenuItemStack menuItemStack, List<Action> actions, ItemStackSimilar itemStackSimilar) {
         this.menuItemStack = menuItemStack;
@@ -31,6 +34,29 @@ public class OpenWithItem {
         return actions;
     }
 
+    public ItemStackSimilar getItemStackSimilar() {
+        return itemStackSimilar;
+    }
+
+    /**
+     * Returns the item compared with the item in the player's hand, a static item is only built once.
+     *
+     * @param player The player who interacts.
+     * @return The {@link ItemStack}.
+     */
+    public ItemStack getTriggerItemStack(Player player) {
+        if (!this.menuItemStack.isStatic()) {
+            return this.menuItemStack.build(player);
+        }
+
+        ItemStack itemStack = this.triggerItemStack;
+        if (itemStack == null) {
+            itemStack = this.menuItemStack.build(player);
+            this.triggerItemStack = itemStack;
+        }
+        return itemStack;
+    }
+
     public boolean shouldTrigger(PlayerInteractEvent event) {
         if (event.getItem() == null) {
             return false;
@@ -40,7 +66,7 @@ public class OpenWithItem {
             return false;
         }
 
-        ItemStack itemStack = this.menuItemStack.build(event.getPlayer());
-        return this.itemStackSimilar.isSimilar(itemStack, event.getItem());
+        ItemStack itemStack = this.getTriggerItemStack(event.getPlayer());
+        return itemStack != null && this.itemStackSimilar.isSimilar(itemStack, event.getItem());
     }
 }
\ No newline at end of file
@@ -0,0 +1,229 @@
+package fr.maxlego08.menu.api.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A string compiled into a list of placeholder references.
+ * <p>
+ * The template is compiled once, then {@link #render(Map)} replaces the references with the values of the map.
+ * A reference is the text between two percent signs, spaces included, and supports the prefixes <b>upper_</b>,
+ * <b>lower_</b> and <b>capitalize_</b> like {@link Placeholders#parse(String)}. The prefixes <b>add_one_</b> and
+ * <b>remove_one_</b> are only supported by {@link Placeholders#parse(String, String, String)}.
+ * A reference without value is kept as it is, so it can still be resolved by PlaceholderAPI.
+ * </p>
+ * <p>
+ * Each percent sign can start a reference, so when a reference has no value its closing percent sign can open the
+ * next one: in <b>%vault_%key%%</b> the reference <b>key</b> is replaced and gives <b>%vault_value%</b>. When a
+ * value contains a percent sign, or when a reference is nested in another one, the result is rendered again to
+ * replace the references it contains, up to {@link #MAX_DEPTH} times.
+ * </p>
+ */
+public class PlaceholderTemplate {
+
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(StringBuilder::new);
+    private static final int MAX_DEPTH = 10;
+    // The strings given to Placeholders#parse(String) are compiled once, the least recently used are removed
+    private static final int MAX_CACHE_SIZE = 4096;
+    private static final Map<String, PlaceholderTemplate> CACHE = new LinkedHashMap<String, PlaceholderTemplate>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PlaceholderTemplate> eldest) {
+            return size() > MAX_CACHE_SIZE;
+        }
+    };
+
+    private final String source;
+    private final Reference[] references;
+
+    private PlaceholderTemplate(String source, Reference[] references) {
+        this.source = source;
+        this.references = references;
+    }
+
+    /**
+     * Compile a string
+     *
+     * @param string The string, can be null
+     * @return the template, null if the string is null
+     */
+    public static PlaceholderTemplate compile(String string) {
+        if (string == null) return null;
+
+        List<Reference> references = new ArrayList<>();
+        int length = string.length();
+
+        for (int index = string.indexOf('%'); index >= 0 && index < length - 1; index = string.indexOf('%', index + 1)) {
+
+            int end = index + 1;
+            while (end < length && string.charAt(end) != '%') end++;
+
+            // Not a reference, the percent is a literal
+            if (end >= length || string.charAt(end) != '%' || end == index + 1) continue;
+
+            references.add(new Reference(string.substring(index + 1, end), index, end, isNested(string, index)));
+        }
+
+        return new PlaceholderTemplate(string, references.isEmpty() ? null : references.toArray(new Reference[0]));
+    }
+
+    /**
+     * Get the compiled template of a string, the templates with at least one reference are kept in a cache
+     *
+     * @param string The string, can be null
+     * @return the template, null if the string is null
+     */
+    public static PlaceholderTemplate of(String string) {
+        if (string == null) return null;
+        // Without percent sign there is no reference, nothing to keep
+        if (string.indexOf('%') < 0) return new PlaceholderTemplate(string, null);
+
+        synchronized (CACHE) {
+            PlaceholderTemplate template = CACHE.get(string);
+            if (template != null) return template;
+        }
+
+        PlaceholderTemplate template = compile(string);
+        if (template.hasPlaceholders()) {
+            synchronized (CACHE) {
+                CACHE.put(string, template);
+            }
+        }
+        return template;
+    }
+
+    /**
+     * A reference is nested if an unclosed percent sign is before it in the same word
+     */
+    private static boolean isNested(String string, int index) {
+        for (int i = index - 1; i >= 0; i--) {
+            char character = string.charAt(i);
+            if (character == '%') return true;
+            if (Character.isWhitespace(character)) return false;
+        }
+        return false;
+    }
+
+    /**
+     * @return the string used to compile the template
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * @return true if the template contains at least one reference
+     */
+    public boolean hasPlaceholders() {
+        return this.references != null;
+    }
+
+    /**
+     * Replace the references with the values of the map
+     *
+     * @param placeholders The values
+     * @return the rendered string
+     */
+    public String render(Map<String, String> placeholders) {
+        return this.render(placeholders, 0);
+    }
+
+    private String render(Map<String, String> placeholders, int depth) {
+        if (this.references == null || placeholders.isEmpty()) return this.source;
+
+        StringBuilder builder = BUILDER.get();
+        builder.setLength(0);
+
+        int position = 0;
+        boolean replaced = false;
+        boolean renderAgain = false;
+
+        // The references are sorted by position, a reference inside a replaced one is skipped
+        for (Reference reference : this.references) {
+            if (reference.start < position) continue;
+
+            String value = reference.getValue(placeholders);
+            if (value == null) continue;
+
+            builder.append(this.source, position, reference.start).append(value);
+            position = reference.end + 1;
+            replaced = true;
+            renderAgain |= reference.nested || value.indexOf('%') >= 0;
+        }
+
+        if (!replaced) return this.source;
+
+        builder.append(this.source, position, this.source.length());
+        String result = builder.toString();
+        return renderAgain && depth < MAX_DEPTH ? compile(result).render(placeholders, depth + 1) : result;
+    }
+
+    @Override
+    public String toString() {
+        return this.source;
+    }
+
+    private enum Modifier {
+
+        NONE(""),
+        UPPER("upper_"),
+        LOWER("lower_"),
+        CAPITALIZE("capitalize_"),
+
+        ;
+
+        private final String prefix;
+
+        Modifier(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+
+    private static class Reference {
+
+        private final String name;
+        private final Modifier modifier;
+        private final String key;
+        private final int start;
+        private final int end;
+        private final boolean nested;
+
+        private Reference(String name, int start, int end, boolean nested) {
+            this.name = name;
+            this.start = start;
+            this.end = end;
+            this.nested = nested;
+            Modifier current = Modifier.NONE;
+            for (Modifier value : Modifier.values()) {
+                if (value != Modifier.NONE && name.startsWith(value.prefix) && name.length() > value.prefix.length()) {
+                    current = value;
+                    break;
+                }
+            }
+            this.modifier = current;
+            this.key = name.substring(current.prefix.length());
+        }
+
+        /**
+         * @return the value of the reference, null if it has none
+         */
+        private String getValue(Map<String, String> placeholders) {
+
+            String value = placeholders.get(this.name);
+            if (value != null || this.modifier == Modifier.NONE) return value;
+            if ((value = placeholders.get(this.key)) == null) return null;
+
+            switch (this.modifier) {
+                case UPPER:
+                    return value.toUpperCase();
+                case LOWER:
+                    return value.toLowerCase();
+                case CAPITALIZE:
+                    return value.length() > 1 ? Character.toUpperCase(value.charAt(0)) + value.substring(1) : value;
+                default:
+                    return null;
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package fr.maxlego08.menu.api.utils;
 
 import fr.maxlego08.menu.zcore.logger.Logger;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,24 +32,34 @@ public class Placeholders {
         return strings.stream().map(this::parse).collect(Collectors.toList());
     }
 
+    /**
+     * Replace the registered placeholders in the string, the string is compiled once
+     *
+     * @param string The string
+     * @return the string with the values of the placeholders
+     */
     public String parse(String string) {
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            try {
-
-                string = string.replace("%" + entry.getKey() + "%", entry.getValue());
-                string = string.replace("%upper_" + entry.getKey() + "%", entry.getValue().toUpperCase());
-                string = string.replace("%lower_" + entry.getKey() + "%", entry.getValue().toLowerCase());
-                String capitalize = entry.getValue();
-                if (capitalize.length() > 1) {
-                    capitalize = capitalize.substring(0, 1).toUpperCase() + capitalize.substring(1);
-                }
-                string = string.replace("%capitalize_" + entry.getKey() + "%", capitalize);
-            } catch (Exception exception) {
-                exception.printStackTrace();
-                Logger.info("Error with placeholder key " + entry.getKey() + " !", Logger.LogType.ERROR);
-            }
+        if (string == null || this.placeholders.isEmpty() || string.indexOf('%') < 0) return string;
+        return PlaceholderTemplate.of(string).render(this.placeholders);
+    }
+
+    /**
+     * Replace the registered placeholders in a template compiled at load time
+     *
+     * @param template The template, can be null
+     * @return the string with the values of the placeholders
+     */
+    public String parse(PlaceholderTemplate template) {
+        if (template == null) return null;
+        return template.render(this.placeholders);
+    }
+
+    public List<String> parseTemplates(List<PlaceholderTemplate> templates) {
+        List<String> strings = new ArrayList<>(templates.size());
+        for (PlaceholderTemplate template : templates) {
+            strings.add(this.parse(template));
         }
-        return string;
+        return strings;
     }
 
     public String parse(String string, String key, String value) {
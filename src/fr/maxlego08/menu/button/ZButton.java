@@ -13,6 +13,7 @@ import fr.maxlego08.menu.api.sound.SoundOption;
 import fr.maxlego08.menu.api.utils.OpenLink;
 import fr.maxlego08.menu.api.utils.Placeholders;
 import fr.maxlego08.menu.inventory.inventories.InventoryDefault;
+import fr.maxlego08.menu.save.Config;
 import fr.maxlego08.menu.zcore.utils.PlayerSkin;
 import fr.maxlego08.menu.zcore.utils.ZOpenLink;
 import fr.maxlego08.menu.zcore.utils.meta.Meta;
@@ -31,6 +32,16 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 public abstract class ZButton extends ZPlaceholderButton implements Button {
 
+    /**
+     * For each button class, true if onInventoryClick and onDrag are overridden.
+     */
+    private static final ClassValue<boolean[]> GLOBAL_LISTENERS = new ClassValue<boolean[]>() {
+        @Override
+        protected boolean[] computeValue(Class<?> type) {
+            return new boolean[]{isOverridden(type, "onInventoryClick", InventoryClickEvent.class), isOverridden(type, "onDrag", InventoryDragEvent.class)};
+        }
+    };
+
     private MenuPlugin plugin;
     private String buttonName;
     private MenuItemStack itemStack;
@@ -76,7 +87,8 @@ public abstract class ZButton extends ZPlaceholderButton implements Button {
     public ItemStack getCustomItemStack(Player player) {
         if (this.itemStack == null) return null;
 
-        ItemStack itemStack = this.itemStack.build(player, this.useCache);
+        // The item is displayed in a zMenu inventory, it is built with the anti dupe tag
+        ItemStack itemStack = this.itemStack.build(player, this.useCache, new Placeholders(), Config.enableAntiDupe);
 
         if (this.playerHead != null && itemStack.getItemMeta() instanceof SkullMeta) {
 
@@ -386,6 +398,24 @@ public abstract class ZButton extends ZPlaceholderButton implements Button {
 
     }
 
+    @Override
+    public boolean hasGlobalClick() {
+        return GLOBAL_LISTENERS.get(this.getClass())[0];
+    }
+
+    @Override
+    public boolean hasGlobalDrag() {
+        return GLOBAL_LISTENERS.get(this.getClass())[1];
+    }
+
+    private static boolean isOverridden(Class<?> type, String name, Class<?> eventClass) {
+        try {
+            return type.getMethod(name, eventClass, Player.class, InventoryDefault.class).getDeclaringClass() != ZButton.class;
+        } catch (NoSuchMethodException exception) {
+            return true;
+        }
+    }
+
     @Override
     public boolean isUseCache() {
         return this.useCache;
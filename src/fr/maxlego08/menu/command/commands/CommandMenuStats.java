@@ -0,0 +1,55 @@
+package fr.maxlego08.menu.command.commands;
+
+import fr.maxlego08.menu.MenuPlugin;
+import fr.maxlego08.menu.command.VCommand;
+import fr.maxlego08.menu.dupe.DupeNotifier;
+import fr.maxlego08.menu.inventory.RenderStatistics;
+import fr.maxlego08.menu.placeholder.PlaceholderCache;
+import fr.maxlego08.menu.players.ZDataManager;
+import fr.maxlego08.menu.players.inventory.ZInventoriesPlayer;
+import fr.maxlego08.menu.scheduler.RefreshScheduler;
+import fr.maxlego08.menu.zcore.enums.Message;
+import fr.maxlego08.menu.zcore.enums.Permission;
+import fr.maxlego08.menu.zcore.utils.commands.CommandType;
+
+public class CommandMenuStats extends VCommand {
+
+    public CommandMenuStats(MenuPlugin plugin) {
+        super(plugin);
+        this.setPermission(Permission.ZMENU_STATS);
+        this.setDescription(Message.DESCRIPTION_STATS);
+        this.addSubCommand("stats");
+    }
+
+    @Override
+    protected CommandType perform(MenuPlugin plugin) {
+
+        RenderStatistics renderStatistics = plugin.getRenderStatistics();
+        message(sender, "§fOpen resolve§8: §7" + renderStatistics.getResolve());
+        message(sender, "§fOpen wait§8: §7" + renderStatistics.getWait());
+        message(sender, "§fOpen commit§8: §7" + renderStatistics.getCommit());
+        message(sender, "§fOpen placeholders§8: §a" + renderStatistics.getResolvedPlaceholders() + " resolved§8, §e" + renderStatistics.getReusedPlaceholders() + " reused");
+
+        RefreshScheduler refreshScheduler = plugin.getRefreshScheduler();
+        message(sender, "§fButton refresh§8: §7" + refreshScheduler.getTaskCount() + " tasks§8, §a" + refreshScheduler.getAppliedUpdates() + " applied§8, §e" + refreshScheduler.getSkippedUpdates() + " skipped");
+
+        PlaceholderCache placeholderCache = PlaceholderCache.getInstance();
+        message(sender, "§fPlaceholderAPI cache§8: §7" + placeholderCache.size() + " entries§8, §a" + placeholderCache.getHits() + " hits§8, §e" + placeholderCache.getMisses() + " misses§8, §c" + placeholderCache.getEvictions() + " evictions");
+
+        ZDataManager dataManager = (ZDataManager) plugin.getDataManager();
+        message(sender, "§fPlayer data§8: §7" + dataManager.getPlayers().size() + " in memory§8, §7" + dataManager.getOfflinePlayers().size() + " offline cached§8, §7" + dataManager.getExpirations().size() + " expirations");
+
+        ZInventoriesPlayer inventoriesPlayer = (ZInventoriesPlayer) plugin.getInventoriesPlayer();
+        message(sender, "§fStored inventories§8: §7" + inventoriesPlayer.size() + " stored§8, §e" + inventoriesPlayer.getQueueSize() + " waiting§8, §7last flush " + inventoriesPlayer.getLastFlushCount() + " files in " + inventoriesPlayer.getLastFlushTime() + "ms");
+
+        message(sender, "§fAnti dupe§8: §7" + plugin.getDupeExposure().size() + " exposed players");
+
+        DupeNotifier dupeNotifier = plugin.getDupeNotifier();
+        if (dupeNotifier != null) {
+            message(sender, "§fAnti dupe alerts§8: §a" + dupeNotifier.getSent() + " sent§8, §7" + dupeNotifier.getCoalesced() + " grouped§8, §e" + dupeNotifier.getQueueSize() + " waiting§8, §c" + dupeNotifier.getDropped() + " dropped§8, §c" + dupeNotifier.getFailed() + " failed§8, §c" + dupeNotifier.getRateLimited() + " rate limited§8, §7" + dupeNotifier.getSuppressedLogs() + " not logged");
+        }
+
+        return CommandType.SUCCESS;
+    }
+
+}
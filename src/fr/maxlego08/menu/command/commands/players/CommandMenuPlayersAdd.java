@@ -1,17 +1,17 @@
 package fr.maxlego08.menu.command.commands.players;
 
 import fr.maxlego08.menu.MenuPlugin;
-import fr.maxlego08.menu.api.players.Data;
 import fr.maxlego08.menu.api.players.DataManager;
 import fr.maxlego08.menu.command.VCommand;
-import fr.maxlego08.menu.players.ZData;
 import fr.maxlego08.menu.players.ZDataManager;
 import fr.maxlego08.menu.zcore.enums.Message;
 import fr.maxlego08.menu.zcore.enums.Permission;
 import fr.maxlego08.menu.zcore.utils.commands.CommandType;
-import org.bukkit.OfflinePlayer;
+import org.bukkit.command.CommandSender;
 
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
 
 public class CommandMenuPlayersAdd extends VCommand {
 
@@ -31,22 +31,27 @@ public class CommandMenuPlayersAdd extends VCommand {
     @Override
     protected CommandType perform(MenuPlugin plugin) {
 
-        OfflinePlayer player = this.argAsOfflinePlayer(0);
+        String playerName = this.argAsString(0);
+        Optional<UUID> optionalUniqueId = plugin.getDataManager().getUniqueId(playerName);
+        if (!optionalUniqueId.isPresent()) {
+            message(this.sender, Message.PLAYERS_DATA_UNKNOWN_PLAYER, "%player%", playerName);
+            return CommandType.DEFAULT;
+        }
+        UUID uniqueId = optionalUniqueId.get();
         String key = this.argAsString(1);
         int value = this.argAsInteger(2);
 
+        // The batch loads a player who is not in memory without blocking the server, the answer is sent once it's applied
         DataManager dataManager = plugin.getDataManager();
-        Optional<Data> optional = dataManager.getData(player.getUniqueId(), key);
-        if (!optional.isPresent()) {
-            Data data = new ZData(key, value, 0);
-            dataManager.addData(player.getUniqueId(), data);
-        } else {
-            Data data = optional.get();
-            data.add(value);
-        }
-        dataManager.autoSave();
-
-        message(this.sender, Message.PLAYERS_DATA_ADD, "%player%", player.getName(), "%key%", key);
+        CommandSender sender = this.sender;
+        dataManager.batch(batch -> batch.add(uniqueId, key, value)).whenComplete((count, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                message(sender, Message.PLAYERS_DATA_BATCH_ERROR, "%error%", cause.getMessage());
+                return;
+            }
+            message(sender, Message.PLAYERS_DATA_ADD, "%player%", playerName, "%key%", key);
+        });
 
         return CommandType.SUCCESS;
     }
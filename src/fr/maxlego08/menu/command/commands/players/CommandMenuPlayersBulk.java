@@ -0,0 +1,120 @@
+package fr.maxlego08.menu.command.commands.players;
+
+import fr.maxlego08.menu.MenuPlugin;
+import fr.maxlego08.menu.api.players.DataManager;
+import fr.maxlego08.menu.api.requirement.data.ActionPlayerDataType;
+import fr.maxlego08.menu.command.VCommand;
+import fr.maxlego08.menu.players.ZData;
+import fr.maxlego08.menu.zcore.enums.Message;
+import fr.maxlego08.menu.zcore.enums.Permission;
+import fr.maxlego08.menu.zcore.utils.commands.CommandType;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+public class CommandMenuPlayersBulk extends VCommand {
+
+    public CommandMenuPlayersBulk(MenuPlugin plugin) {
+        super(plugin);
+        this.setPermission(Permission.ZMENU_PLAYERS);
+        this.setDescription(Message.DESCRIPTION_PLAYERS_BULK);
+        this.addSubCommand("bulk");
+        this.addRequireArg("players", (sender, args) -> Collections.singletonList("*"));
+        this.addRequireArg("action", (sender, args) -> Arrays.stream(ActionPlayerDataType.values()).map(type -> type.name().toLowerCase()).collect(Collectors.toList()));
+        this.addRequireArg("key");
+        this.addOptionalArg("value");
+    }
+
+    @Override
+    protected CommandType perform(MenuPlugin plugin) {
+
+        String players = this.argAsString(0);
+        ActionPlayerDataType type;
+        try {
+            type = ActionPlayerDataType.valueOf(this.argAsString(1).toUpperCase());
+        } catch (IllegalArgumentException exception) {
+            return CommandType.SYNTAX_ERROR;
+        }
+        String key = this.argAsString(2);
+        String value = this.argAsString(3, null);
+
+        if (value == null && type != ActionPlayerDataType.REMOVE) {
+            return CommandType.SYNTAX_ERROR;
+        }
+
+        List<UUID> uniqueIds = this.getUniqueIds(plugin.getDataManager(), players);
+
+        // The amount is parsed once, before the changes are applied
+        long amount;
+        try {
+            amount = type == ActionPlayerDataType.ADD || type == ActionPlayerDataType.SUBTRACT ? Long.parseLong(value) : 0;
+        } catch (NumberFormatException exception) {
+            return CommandType.SYNTAX_ERROR;
+        }
+
+        DataManager dataManager = plugin.getDataManager();
+        CommandSender sender = this.sender;
+        dataManager.batch(batch -> {
+            for (UUID uniqueId : uniqueIds) {
+                switch (type) {
+                    case SET:
+                        batch.addData(uniqueId, new ZData(key, value, 0));
+                        break;
+                    case REMOVE:
+                        batch.removeData(uniqueId, key);
+                        break;
+                    case ADD:
+                        batch.add(uniqueId, key, amount);
+                        break;
+                    case SUBTRACT:
+                        batch.subtract(uniqueId, key, amount);
+                        break;
+                }
+            }
+        }).whenComplete((count, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                message(sender, Message.PLAYERS_DATA_BATCH_ERROR, "%error%", cause.getMessage());
+                return;
+            }
+            message(sender, Message.PLAYERS_DATA_BULK, "%action%", type.name().toLowerCase(), "%key%", key, "%count%", count);
+        });
+
+        return CommandType.SUCCESS;
+    }
+
+    /**
+     * @param players * for the online players, or a list of names and uuids separated by commas
+     * @return the uuids
+     */
+    private List<UUID> getUniqueIds(DataManager dataManager, String players) {
+
+        if (players.equals("*")) {
+            return Bukkit.getOnlinePlayers().stream().map(Player::getUniqueId).collect(Collectors.toList());
+        }
+
+        Set<UUID> uniqueIds = new LinkedHashSet<>();
+        for (String name : players.split(",")) {
+            if (name.isEmpty()) continue;
+            Optional<UUID> optional = dataManager.getUniqueId(name);
+            if (optional.isPresent()) {
+                uniqueIds.add(optional.get());
+            } else {
+                message(this.sender, Message.PLAYERS_DATA_UNKNOWN_PLAYER, "%player%", name);
+            }
+        }
+        return new ArrayList<>(uniqueIds);
+    }
+
+}
@@ -6,7 +6,9 @@ import fr.maxlego08.menu.command.VCommand;
 import fr.maxlego08.menu.zcore.enums.Message;
 import fr.maxlego08.menu.zcore.enums.Permission;
 import fr.maxlego08.menu.zcore.utils.commands.CommandType;
-import org.bukkit.OfflinePlayer;
+
+import java.util.Optional;
+import java.util.UUID;
 
 public class CommandMenuPlayersClearPlayer extends VCommand {
 
@@ -22,11 +24,17 @@ public class CommandMenuPlayersClearPlayer extends VCommand {
     protected CommandType perform(MenuPlugin plugin) {
 
         DataManager dataManager = plugin.getDataManager();
-        OfflinePlayer offlinePlayer = this.argAsOfflinePlayer(0);
+        String playerName = this.argAsString(0);
+        Optional<UUID> optionalUniqueId = plugin.getDataManager().getUniqueId(playerName);
+        if (!optionalUniqueId.isPresent()) {
+            message(this.sender, Message.PLAYERS_DATA_UNKNOWN_PLAYER, "%player%", playerName);
+            return CommandType.DEFAULT;
+        }
+        UUID uniqueId = optionalUniqueId.get();
 
-        dataManager.clearPlayer(offlinePlayer.getUniqueId());
+        dataManager.clearPlayer(uniqueId);
 
-        message(this.sender, Message.PLAYERS_DATA_CLEAR_PLAYER, "%player%", offlinePlayer.getName());
+        message(this.sender, Message.PLAYERS_DATA_CLEAR_PLAYER, "%player%", playerName);
 
         return CommandType.SUCCESS;
     }
@@ -3,15 +3,15 @@ package fr.maxlego08.menu.command.commands.players;
 import fr.maxlego08.menu.MenuPlugin;
 import fr.maxlego08.menu.api.players.Data;
 import fr.maxlego08.menu.api.players.DataManager;
-import fr.maxlego08.menu.api.players.PlayerData;
 import fr.maxlego08.menu.command.VCommand;
 import fr.maxlego08.menu.players.ZDataManager;
 import fr.maxlego08.menu.zcore.enums.Message;
 import fr.maxlego08.menu.zcore.enums.Permission;
 import fr.maxlego08.menu.zcore.utils.commands.CommandType;
-import org.bukkit.OfflinePlayer;
+import org.bukkit.command.CommandSender;
 
 import java.util.Optional;
+import java.util.UUID;
 
 public class CommandMenuPlayersGet extends VCommand {
 
@@ -32,24 +32,29 @@ public class CommandMenuPlayersGet extends VCommand {
 
         DataManager dataManager = plugin.getDataManager();
 
-        OfflinePlayer player = this.argAsOfflinePlayer(0);
+        String playerName = this.argAsString(0);
+        Optional<UUID> optionalUniqueId = plugin.getDataManager().getUniqueId(playerName);
+        if (!optionalUniqueId.isPresent()) {
+            message(this.sender, Message.PLAYERS_DATA_UNKNOWN_PLAYER, "%player%", playerName);
+            return CommandType.DEFAULT;
+        }
+        UUID uniqueId = optionalUniqueId.get();
         String key = this.argAsString(1);
 
-        Optional<PlayerData> optional = dataManager.getPlayer(player.getUniqueId());
-        if (!optional.isPresent()) {
-            message(this.sender, Message.PLAYERS_DATA_GET_ERROR, "%key%", key);
-            return CommandType.SUCCESS;
-        }
+        // A player who is not in memory is loaded without blocking the server, the answer is sent once it's loaded
+        CommandSender sender = this.sender;
+        dataManager.getPlayerAsync(uniqueId).thenAccept(optional -> {
 
-        PlayerData playerData = optional.get();
-        if (!playerData.containsKey(key)) {
-            message(this.sender, Message.PLAYERS_DATA_GET_ERROR, "%key%", key);
-            return CommandType.SUCCESS;
-        }
+            Optional<Data> optionalData = optional.flatMap(playerData -> playerData.getData(key));
+            if (!optionalData.isPresent()) {
+                message(sender, Message.PLAYERS_DATA_GET_ERROR, "%key%", key);
+                return;
+            }
 
-        Data data = playerData.getData(key).get();
-        message(this.sender, Message.PLAYERS_DATA_GET_SUCCESS, "%value%", data.getValue(), "%key%", data.getKey(),
-                "%expiredAt%", data.getExpiredAt());
+            Data data = optionalData.get();
+            message(sender, Message.PLAYERS_DATA_GET_SUCCESS, "%value%", data.getValue(), "%key%", data.getKey(),
+                    "%expiredAt%", data.getExpiredAt());
+        });
 
         return CommandType.SUCCESS;
     }
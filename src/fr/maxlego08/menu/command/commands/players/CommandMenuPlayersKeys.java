@@ -8,10 +8,11 @@ import fr.maxlego08.menu.command.VCommand;
 import fr.maxlego08.menu.zcore.enums.Message;
 import fr.maxlego08.menu.zcore.enums.Permission;
 import fr.maxlego08.menu.zcore.utils.commands.CommandType;
-import org.bukkit.OfflinePlayer;
+import org.bukkit.command.CommandSender;
 
 import java.util.Collection;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 public class CommandMenuPlayersKeys extends VCommand {
@@ -29,24 +30,34 @@ public class CommandMenuPlayersKeys extends VCommand {
 
         DataManager dataManager = plugin.getDataManager();
 
-        OfflinePlayer player = this.argAsOfflinePlayer(0);
-
-        Optional<PlayerData> optional = dataManager.getPlayer(player.getUniqueId());
-        if (!optional.isPresent()) {
-            message(this.sender, Message.PLAYERS_DATA_KEYS_EMPTY, "%player%", player.getName());
-            return CommandType.SUCCESS;
+        String playerName = this.argAsString(0);
+        Optional<UUID> optionalUniqueId = plugin.getDataManager().getUniqueId(playerName);
+        if (!optionalUniqueId.isPresent()) {
+            message(this.sender, Message.PLAYERS_DATA_UNKNOWN_PLAYER, "%player%", playerName);
+            return CommandType.DEFAULT;
         }
+        UUID uniqueId = optionalUniqueId.get();
 
-        PlayerData playerData = optional.get();
-        Collection<Data> collection = playerData.getDatas();
+        // A player who is not in memory is loaded without blocking the server, the answer is sent once it's loaded
+        CommandSender sender = this.sender;
+        dataManager.getPlayerAsync(uniqueId).thenAccept(optional -> {
 
-        if (collection.isEmpty()) {
-            message(this.sender, Message.PLAYERS_DATA_KEYS_EMPTY);
-            return CommandType.SUCCESS;
-        }
+            if (!optional.isPresent()) {
+                message(sender, Message.PLAYERS_DATA_KEYS_EMPTY, "%player%", playerName);
+                return;
+            }
+
+            PlayerData playerData = optional.get();
+            Collection<Data> collection = playerData.getDatas();
+
+            if (collection.isEmpty()) {
+                message(sender, Message.PLAYERS_DATA_KEYS_EMPTY);
+                return;
+            }
 
-        String keys = toList(collection.stream().map(Data::getKey).collect(Collectors.toList()), "§8", "§7");
-        message(this.sender, Message.PLAYERS_DATA_KEYS_SUCCESS, "%keys%", keys, "%player%", player.getName());
+            String keys = toList(collection.stream().map(Data::getKey).collect(Collectors.toList()), "§8", "§7");
+            message(sender, Message.PLAYERS_DATA_KEYS_SUCCESS, "%keys%", keys, "%player%", playerName);
+        });
 
         return CommandType.SUCCESS;
     }
@@ -8,7 +8,9 @@ import fr.maxlego08.menu.players.ZData;
 import fr.maxlego08.menu.zcore.enums.Message;
 import fr.maxlego08.menu.zcore.enums.Permission;
 import fr.maxlego08.menu.zcore.utils.commands.CommandType;
-import org.bukkit.OfflinePlayer;
+
+import java.util.Optional;
+import java.util.UUID;
 
 public class CommandMenuPlayersSet extends VCommand {
 
@@ -27,7 +29,13 @@ public class CommandMenuPlayersSet extends VCommand {
     @Override
     protected CommandType perform(MenuPlugin plugin) {
 
-        OfflinePlayer player = this.argAsOfflinePlayer(0);
+        String playerName = this.argAsString(0);
+        Optional<UUID> optionalUniqueId = plugin.getDataManager().getUniqueId(playerName);
+        if (!optionalUniqueId.isPresent()) {
+            message(this.sender, Message.PLAYERS_DATA_UNKNOWN_PLAYER, "%player%", playerName);
+            return CommandType.DEFAULT;
+        }
+        UUID uniqueId = optionalUniqueId.get();
         String key = this.argAsString(1);
         long seconds = this.argAsLong(2);
 
@@ -50,10 +58,10 @@ public class CommandMenuPlayersSet extends VCommand {
         Data data = new ZData(key, value, expiredAt);
 
         DataManager dataManager = plugin.getDataManager();
-        dataManager.addData(player.getUniqueId(), data);
+        dataManager.addData(uniqueId, data);
         dataManager.autoSave();
 
-        message(this.sender, Message.PLAYERS_DATA_SET, "%player%", player.getName(), "%key%", key);
+        message(this.sender, Message.PLAYERS_DATA_SET, "%player%", playerName, "%key%", key);
 
         return CommandType.SUCCESS;
     }
@@ -0,0 +1,73 @@
+package fr.maxlego08.menu.dupe;
+
+import fr.maxlego08.menu.save.Config;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Players who have had a zMenu inventory open recently.
+ * <p>
+ * A protected item can only be obtained from a zMenu inventory, the {@link DupeListener} only checks the items of
+ * these players. A player stays exposed until their inventory has been swept, {@link Config#antiDupeExposureSeconds}
+ * after the last inventory opened.
+ * </p>
+ */
+public class DupeExposure {
+
+    private final Map<UUID, Long> exposures = new ConcurrentHashMap<>();
+
+    /**
+     * Called when a zMenu inventory is opened or closed
+     *
+     * @param uniqueId The player's uuid
+     */
+    public void expose(UUID uniqueId) {
+        this.exposures.put(uniqueId, System.currentTimeMillis());
+    }
+
+    public boolean isExposed(UUID uniqueId) {
+        return this.exposures.containsKey(uniqueId);
+    }
+
+    /**
+     * @return the players whose exposure is older than {@link Config#antiDupeExposureSeconds}, with the time of their
+     * last exposure
+     */
+    public List<Map.Entry<UUID, Long>> getExpired() {
+        long limit = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(Config.antiDupeExposureSeconds);
+        List<Map.Entry<UUID, Long>> expired = new ArrayList<>();
+        this.exposures.forEach((uniqueId, exposedAt) -> {
+            if (exposedAt < limit) expired.add(new AbstractMap.SimpleImmutableEntry<>(uniqueId, exposedAt));
+        });
+        return expired;
+    }
+
+    /**
+     * Remove a player after the sweep of their inventory, unless they have been exposed again in the meantime
+     *
+     * @param uniqueId  The player's uuid
+     * @param exposedAt The time of the exposure which has been swept
+     */
+    public void clear(UUID uniqueId, long exposedAt) {
+        this.exposures.remove(uniqueId, exposedAt);
+    }
+
+    /**
+     * Called when a player leaves, their inventory is swept when they join
+     *
+     * @param uniqueId The player's uuid
+     */
+    public void remove(UUID uniqueId) {
+        this.exposures.remove(uniqueId);
+    }
+
+    public int size() {
+        return this.exposures.size();
+    }
+}
@@ -1,11 +1,14 @@
 package fr.maxlego08.menu.dupe;
 
+import fr.maxlego08.menu.MenuPlugin;
 import fr.maxlego08.menu.api.dupe.DupeItem;
 import fr.maxlego08.menu.api.dupe.DupeManager;
 import fr.maxlego08.menu.api.scheduler.ZScheduler;
+import fr.maxlego08.menu.inventory.VInventory;
 import fr.maxlego08.menu.save.Config;
-import fr.maxlego08.menu.zcore.logger.Logger;
-import fr.maxlego08.menu.zcore.utils.DiscordWebhook;
+import fr.maxlego08.menu.scheduler.BukkitScheduler;
+import fr.maxlego08.menu.scheduler.FoliaScheduler;
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.Item;
 import org.bukkit.entity.Player;
@@ -16,25 +19,104 @@ import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerPickupItemEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.ItemStack;
-
-import java.io.IOException;
-
+import org.bukkit.inventory.PlayerInventory;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Remove the protected items which have left a zMenu inventory.
+ * <p>
+ * Only the players exposed to a zMenu inventory, see {@link DupeExposure}, are checked on interact, drop, place and
+ * click. When the exposure of a player is over, their whole inventory is swept once, on the thread of the player.
+ * A player who leaves is no longer tracked, their inventory is swept when they join. The items on the ground are not
+ * linked to a player, the pickups are always checked.
+ * </p>
+ */
 public class DupeListener implements Listener {
 
     private final ZScheduler schedule;
     private final DupeManager dupeManager;
+    private final DupeExposure exposure;
+    private final DupeNotifier notifier;
 
-    public DupeListener(ZScheduler schedule, DupeManager dupeManager) {
-        this.schedule = schedule;
+    public DupeListener(MenuPlugin plugin, DupeManager dupeManager, DupeExposure exposure, DupeNotifier notifier) {
+        this.schedule = plugin.getScheduler();
         this.dupeManager = dupeManager;
+        this.exposure = exposure;
+        this.notifier = notifier;
+
+        ZScheduler timer = MenuPlugin.isFolia() ? new FoliaScheduler(plugin) : new BukkitScheduler(plugin);
+        long period = Math.max(1, Config.antiDupeSweepTicks);
+        timer.runTaskTimerAsynchronously(period, period, this::sweep);
+    }
+
+    /**
+     * Find the players whose exposure is over, their inventory is swept on their own thread
+     */
+    private void sweep() {
+        for (Map.Entry<UUID, Long> entry : this.exposure.getExpired()) {
+            Player player = Bukkit.getPlayer(entry.getKey());
+            // An offline player is swept when they come back
+            if (player == null) continue;
+            this.schedule.runTaskAtEntity(player, () -> this.sweep(player, entry.getValue()));
+        }
+    }
+
+    /**
+     * A player who left while exposed is no longer tracked, the sweep is done when they join
+     */
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        this.exposure.remove(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        this.sweepInventory(event.getPlayer());
+    }
+
+    private void sweep(Player player, long exposedAt) {
+
+        if (!player.isOnline()) return;
+
+        // Still in a zMenu inventory, the exposure continues
+        if (player.getOpenInventory().getTopInventory().getHolder() instanceof VInventory) {
+            this.exposure.expose(player.getUniqueId());
+            return;
+        }
+
+        this.sweepInventory(player);
+        this.exposure.clear(player.getUniqueId(), exposedAt);
+    }
+
+    private void sweepInventory(Player player) {
+
+        PlayerInventory inventory = player.getInventory();
+        ItemStack[] contents = inventory.getContents();
+        for (int slot = 0; slot < contents.length; slot++) {
+            ItemStack itemStack = contents[slot];
+            if (itemStack != null && this.dupeManager.isDupeItem(itemStack)) {
+                inventory.setItem(slot, new ItemStack(Material.AIR));
+                sendInformation(new DupeItem(itemStack, player));
+            }
+        }
+
+        ItemStack cursor = player.getItemOnCursor();
+        if (cursor != null && this.dupeManager.isDupeItem(cursor)) {
+            player.setItemOnCursor(new ItemStack(Material.AIR));
+            sendInformation(new DupeItem(cursor, player));
+        }
     }
 
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onInteract(PlayerInteractEvent event) {
 
-        if (event.isCancelled()) return;
+        if (event.isCancelled() || !this.exposure.isExposed(event.getPlayer().getUniqueId())) return;
 
         try {
             ItemStack itemStack = event.getItem();
@@ -56,7 +138,7 @@ public class DupeListener implements Listener {
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onDrop(PlayerDropItemEvent event) {
 
-        if (event.isCancelled()) return;
+        if (event.isCancelled() || !this.exposure.isExposed(event.getPlayer().getUniqueId())) return;
 
         Item item = event.getItemDrop();
         ItemStack itemStack = item.getItemStack();
@@ -69,7 +151,7 @@ public class DupeListener implements Listener {
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onDrop(BlockPlaceEvent event) {
 
-        if (event.isCancelled()) return;
+        if (event.isCancelled() || !this.exposure.isExposed(event.getPlayer().getUniqueId())) return;
 
         try {
             ItemStack itemStack = event.getItemInHand();
@@ -100,7 +182,7 @@ public class DupeListener implements Listener {
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onInventoryClick(InventoryClickEvent event) {
 
-        if (event.isCancelled()) return;
+        if (event.isCancelled() || !this.exposure.isExposed(event.getWhoClicked().getUniqueId())) return;
 
         Player player = (Player) event.getWhoClicked();
         ItemStack itemStack = event.getCurrentItem();
@@ -125,18 +207,9 @@ public class DupeListener implements Listener {
 
     private void sendInformation(DupeItem dupeItem) {
 
-        DiscordWebhook discordWebhook = new DiscordWebhook(Config.antiDupeDiscordWebhookUrl);
-        discordWebhook.setContent(Config.antiDupeMessage);
-
-        Logger.info(discordWebhook.replaceString(Config.antiDupeMessage, dupeItem), Logger.LogType.WARNING);
+        this.notifier.log(dupeItem);
         if (Config.enableAntiDupeDiscordNotification) {
-            schedule.runTaskAsynchronously(() -> {
-                try {
-                    discordWebhook.execute(dupeItem);
-                } catch (IOException exception) {
-                    exception.printStackTrace();
-                }
-            });
+            this.notifier.addAlert(dupeItem);
         }
     }
 
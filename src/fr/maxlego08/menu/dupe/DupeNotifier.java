@@ -0,0 +1,237 @@
+package fr.maxlego08.menu.dupe;
+
+import fr.maxlego08.menu.MenuPlugin;
+import fr.maxlego08.menu.api.dupe.DupeItem;
+import fr.maxlego08.menu.api.scheduler.ZScheduler;
+import fr.maxlego08.menu.save.Config;
+import fr.maxlego08.menu.scheduler.BukkitScheduler;
+import fr.maxlego08.menu.scheduler.FoliaScheduler;
+import fr.maxlego08.menu.zcore.logger.Logger;
+import fr.maxlego08.menu.zcore.utils.DiscordWebhook;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Send the anti dupe alerts to the Discord webhook.
+ * <p>
+ * The alerts of the same player and item are grouped during {@link Config#antiDupeNotificationWindowTicks} and sent
+ * as one embed with the number of detections. Each window sends one message with up to 10 embeds, the other alerts
+ * wait for the next window. When Discord rate limits the webhook, nothing is sent until the delay given by Discord
+ * is over. When {@link Config#antiDupeNotificationQueueSize} alerts are waiting, the new alerts are dropped.
+ * </p>
+ * <p>
+ * The console logs at most {@link Config#antiDupeLogsPerSecond} alerts per second, the number of alerts which were
+ * not logged is written with the next logged alert.
+ * </p>
+ */
+public class DupeNotifier {
+
+    // Discord accepts up to 10 embeds per message
+    private static final int MAX_EMBEDS = 10;
+
+    // Alerts waiting to be sent, by player and item, guarded by this
+    private final Map<String, Alert> alerts = new LinkedHashMap<>();
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong suppressedLogs = new AtomicLong();
+    // Only used to format the alerts
+    private final DiscordWebhook formatter = new DiscordWebhook(null);
+    private volatile long retryAt;
+    // Console logs of the current second, guarded by this
+    private long logSecond;
+    private int logCount;
+    private int logSuppressed;
+
+    public DupeNotifier(MenuPlugin plugin) {
+        ZScheduler timer = MenuPlugin.isFolia() ? new FoliaScheduler(plugin) : new BukkitScheduler(plugin);
+        long period = Math.max(1, Config.antiDupeNotificationWindowTicks);
+        timer.runTaskTimerAsynchronously(period, period, this::dispatch);
+    }
+
+    /**
+     * Add an alert, the item name is read on the calling thread
+     *
+     * @param dupeItem The dupe item
+     */
+    public void addAlert(DupeItem dupeItem) {
+
+        String playerName = dupeItem.getPlayer().getName();
+        String itemName = this.formatter.getItemName(dupeItem.getItemStack());
+        int amount = dupeItem.getItemStack().getAmount();
+        String key = dupeItem.getPlayer().getUniqueId() + ":" + itemName;
+
+        synchronized (this) {
+            Alert alert = this.alerts.get(key);
+            if (alert != null) {
+                alert.add(1, amount);
+                this.coalesced.incrementAndGet();
+                return;
+            }
+            if (this.alerts.size() >= Config.antiDupeNotificationQueueSize) {
+                this.dropped.incrementAndGet();
+                return;
+            }
+            this.alerts.put(key, new Alert(key, playerName, itemName, amount));
+        }
+    }
+
+    public String replaceString(String string, DupeItem dupeItem) {
+        return this.formatter.replaceString(string, dupeItem);
+    }
+
+    /**
+     * Log an alert in the console, the message is only built if the alert is logged
+     *
+     * @param dupeItem The dupe item
+     */
+    public void log(DupeItem dupeItem) {
+
+        int suppressed;
+        synchronized (this) {
+            long second = System.currentTimeMillis() / 1000;
+            if (second != this.logSecond) {
+                this.logSecond = second;
+                this.logCount = 0;
+            }
+            if (this.logCount >= Config.antiDupeLogsPerSecond) {
+                this.logSuppressed++;
+                this.suppressedLogs.incrementAndGet();
+                return;
+            }
+            this.logCount++;
+            suppressed = this.logSuppressed;
+            this.logSuppressed = 0;
+        }
+
+        if (suppressed > 0) {
+            Logger.info(suppressed + " anti dupe alerts were not logged", Logger.LogType.WARNING);
+        }
+        Logger.info(this.replaceString(Config.antiDupeMessage, dupeItem), Logger.LogType.WARNING);
+    }
+
+    private void dispatch() {
+
+        if (System.currentTimeMillis() < this.retryAt || !this.sending.compareAndSet(false, true)) return;
+
+        try {
+            List<Alert> alerts = this.poll();
+            if (alerts.isEmpty()) return;
+
+            List<String> descriptions = new ArrayList<>(alerts.size());
+            for (Alert alert : alerts) {
+                descriptions.add(alert.getDescription());
+            }
+
+            try {
+                long retryAfter = new DiscordWebhook(Config.antiDupeDiscordWebhookUrl).execute(descriptions);
+                if (retryAfter > 0) {
+                    this.rateLimited.incrementAndGet();
+                    this.retryAt = System.currentTimeMillis() + retryAfter;
+                    this.requeue(alerts);
+                } else {
+                    this.sent.addAndGet(alerts.size());
+                }
+            } catch (IOException exception) {
+                this.failed.addAndGet(alerts.size());
+                Logger.info("Unable to send the anti dupe alerts to Discord: " + exception.getMessage(), Logger.LogType.ERROR);
+            }
+        } finally {
+            this.sending.set(false);
+        }
+    }
+
+    private synchronized List<Alert> poll() {
+        List<Alert> alerts = new ArrayList<>(MAX_EMBEDS);
+        Iterator<Alert> iterator = this.alerts.values().iterator();
+        while (iterator.hasNext() && alerts.size() < MAX_EMBEDS) {
+            alerts.add(iterator.next());
+            iterator.remove();
+        }
+        return alerts;
+    }
+
+    /**
+     * Put back the alerts which were not sent, before the alerts added since
+     */
+    private synchronized void requeue(List<Alert> alerts) {
+        Map<String, Alert> waiting = new LinkedHashMap<>(this.alerts);
+        this.alerts.clear();
+        for (Alert alert : alerts) {
+            Alert newAlert = waiting.remove(alert.key);
+            if (newAlert != null) alert.add(newAlert.count, newAlert.amount);
+            this.alerts.put(alert.key, alert);
+        }
+        this.alerts.putAll(waiting);
+    }
+
+    public synchronized int getQueueSize() {
+        return this.alerts.size();
+    }
+
+    public long getSent() {
+        return this.sent.get();
+    }
+
+    public long getCoalesced() {
+        return this.coalesced.get();
+    }
+
+    public long getDropped() {
+        return this.dropped.get();
+    }
+
+    public long getRateLimited() {
+        return this.rateLimited.get();
+    }
+
+    /**
+     * @return the alerts lost because Discord could not be reached or returned an error
+     */
+    public long getFailed() {
+        return this.failed.get();
+    }
+
+    /**
+     * @return the alerts which were not logged in the console
+     */
+    public long getSuppressedLogs() {
+        return this.suppressedLogs.get();
+    }
+
+    private static class Alert {
+
+        private final String key;
+        private final String playerName;
+        private final String itemName;
+        private int count = 1;
+        private int amount;
+
+        private Alert(String key, String playerName, String itemName, int amount) {
+            this.key = key;
+            this.playerName = playerName;
+            this.itemName = itemName;
+            this.amount = amount;
+        }
+
+        private void add(int count, int amount) {
+            this.count += count;
+            this.amount += amount;
+        }
+
+        private String getDescription() {
+            String description = Config.antiDupeMessage.replace("%player%", this.playerName).replace("%itemname%", this.itemName).replace("%amount%", String.valueOf(this.amount));
+            return this.count > 1 ? description + " (x" + this.count + ")" : description;
+        }
+    }
+}
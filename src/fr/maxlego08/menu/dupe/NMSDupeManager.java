@@ -2,6 +2,7 @@ package fr.maxlego08.menu.dupe;
 
 import fr.maxlego08.menu.api.dupe.DupeManager;
 import fr.maxlego08.menu.zcore.utils.nms.ItemStackCompound;
+import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
 
 public class NMSDupeManager implements DupeManager {
@@ -13,6 +14,8 @@ public class NMSDupeManager implements DupeManager {
 
     @Override
     public boolean isDupeItem(ItemStack itemStack) {
-        return ItemStackCompound.itemStackCompound.isKey(itemStack, DupeManager.KEY);
+        // An item without meta has no tag, nothing to read
+        if (itemStack == null || itemStack.getType() == Material.AIR || !itemStack.hasItemMeta()) return false;
+        return ItemStackCompound.itemStackCompound.hasKey(itemStack, DupeManager.KEY);
     }
 }
@@ -1,6 +1,7 @@
 package fr.maxlego08.menu.dupe;
 
 import fr.maxlego08.menu.api.dupe.DupeManager;
+import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
@@ -8,12 +9,28 @@ import org.bukkit.persistence.PersistentDataContainer;
 import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.Plugin;
 
+import java.lang.reflect.Method;
+
 public class PDCDupeManager implements DupeManager {
 
     private final NamespacedKey namespacedKey;
+    // Paper ItemStack#getPersistentDataContainer, a read only view which doesn't copy the meta
+    private final Method viewMethod;
+    private final Method viewHasMethod;
 
     public PDCDupeManager(Plugin plugin) {
         this.namespacedKey = new NamespacedKey(plugin, DupeManager.KEY);
+
+        Method viewMethod = null;
+        Method viewHasMethod = null;
+        try {
+            viewMethod = ItemStack.class.getMethod("getPersistentDataContainer");
+            viewHasMethod = viewMethod.getReturnType().getMethod("has", NamespacedKey.class, PersistentDataType.class);
+        } catch (NoSuchMethodException ignored) {
+            viewMethod = null;
+        }
+        this.viewMethod = viewMethod;
+        this.viewHasMethod = viewHasMethod;
     }
 
     @Override
@@ -28,6 +45,18 @@ public class PDCDupeManager implements DupeManager {
 
     @Override
     public boolean isDupeItem(ItemStack itemStack) {
+
+        // An item without meta has no PDC, getItemMeta would create and copy a meta for nothing
+        if (itemStack == null || itemStack.getType() == Material.AIR || !itemStack.hasItemMeta()) return false;
+
+        if (this.viewMethod != null) {
+            try {
+                return (boolean) this.viewHasMethod.invoke(this.viewMethod.invoke(itemStack), this.namespacedKey, PersistentDataType.INTEGER);
+            } catch (Exception ignored) {
+                // Fallback to the meta
+            }
+        }
+
         ItemMeta itemMeta = itemStack.getItemMeta();
         if (itemMeta == null) return false;
         PersistentDataContainer persistentDataContainer = itemMeta.getPersistentDataContainer();
@@ -0,0 +1,129 @@
+package fr.maxlego08.menu.inventory;
+
+import fr.maxlego08.menu.api.Inventory;
+import fr.maxlego08.menu.api.itemstack.ItemStackSimilar;
+import fr.maxlego08.menu.api.utils.OpenWithItem;
+import fr.maxlego08.menu.itemstack.FullSimilar;
+import fr.maxlego08.menu.itemstack.MaterialSimilar;
+import fr.maxlego08.menu.itemstack.ModelIdSimilar;
+import fr.maxlego08.menu.itemstack.NameSimilar;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the inventories which are opened with an item.
+ * <p>
+ * The static trigger items are built once and indexed by material for the full and material comparisons, by custom
+ * model data for the model id comparison and by display name for the name comparison. The other items, with
+ * placeholders or with another comparison, are always checked. An interact with an item which matches no key only
+ * checks these items.
+ * </p>
+ */
+public class OpenWithItemIndex {
+
+    private final Map<Material, List<Entry>> byMaterial = new EnumMap<>(Material.class);
+    private final Map<Integer, List<Entry>> byModelId = new HashMap<>();
+    private final Map<String, List<Entry>> byName = new HashMap<>();
+    private final List<Entry> others = new ArrayList<>();
+
+    /**
+     * @param inventories The loaded inventories
+     * @param player      The player used to build the static trigger items, they are the same for all the players
+     */
+    public OpenWithItemIndex(Collection<Inventory> inventories, Player player) {
+
+        int order = 0;
+        for (Inventory inventory : inventories) {
+
+            OpenWithItem openWithItem = inventory.getOpenWithItem();
+            if (openWithItem == null) continue;
+
+            Entry entry = new Entry(inventory, order++);
+            if (!openWithItem.getItemStack().isStatic()) {
+                this.others.add(entry);
+                continue;
+            }
+
+            // An item which can't be built never matches
+            ItemStack itemStack = openWithItem.getTriggerItemStack(player);
+            if (itemStack == null) continue;
+
+            ItemStackSimilar similar = openWithItem.getItemStackSimilar();
+            if (similar instanceof FullSimilar || similar instanceof MaterialSimilar) {
+                this.byMaterial.computeIfAbsent(itemStack.getType(), key -> new ArrayList<>()).add(entry);
+            } else if (similar instanceof ModelIdSimilar) {
+                ItemMeta itemMeta = itemStack.getItemMeta();
+                if (itemMeta != null && itemMeta.hasCustomModelData()) {
+                    this.byModelId.computeIfAbsent(itemMeta.getCustomModelData(), key -> new ArrayList<>()).add(entry);
+                }
+            } else if (similar instanceof NameSimilar) {
+                ItemMeta itemMeta = itemStack.getItemMeta();
+                if (itemMeta != null && itemMeta.hasDisplayName()) {
+                    this.byName.computeIfAbsent(itemMeta.getDisplayName(), key -> new ArrayList<>()).add(entry);
+                }
+            } else {
+                this.others.add(entry);
+            }
+        }
+    }
+
+    /**
+     * Find the inventories whose trigger item can match the item, the final check is done by
+     * {@link OpenWithItem#shouldTrigger(org.bukkit.event.player.PlayerInteractEvent)}
+     *
+     * @param itemStack The item in the player's hand
+     * @return the inventories, in the order they were loaded
+     */
+    public List<Inventory> getCandidates(ItemStack itemStack) {
+
+        if (itemStack == null) return Collections.emptyList();
+
+        List<Entry> entries = new ArrayList<>(this.others);
+        List<Entry> materialEntries = this.byMaterial.get(itemStack.getType());
+        if (materialEntries != null) entries.addAll(materialEntries);
+
+        // The meta is only read when an item of the index can match it
+        if ((!this.byModelId.isEmpty() || !this.byName.isEmpty()) && itemStack.hasItemMeta()) {
+            ItemMeta itemMeta = itemStack.getItemMeta();
+            if (!this.byModelId.isEmpty() && itemMeta.hasCustomModelData()) {
+                List<Entry> modelIdEntries = this.byModelId.get(itemMeta.getCustomModelData());
+                if (modelIdEntries != null) entries.addAll(modelIdEntries);
+            }
+            if (!this.byName.isEmpty() && itemMeta.hasDisplayName()) {
+                List<Entry> nameEntries = this.byName.get(itemMeta.getDisplayName());
+                if (nameEntries != null) entries.addAll(nameEntries);
+            }
+        }
+
+        if (entries.isEmpty()) return Collections.emptyList();
+        if (entries.size() > 1) entries.sort(Comparator.comparingInt(entry -> entry.order));
+
+        List<Inventory> inventories = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            inventories.add(entry.inventory);
+        }
+        return inventories;
+    }
+
+    private static class Entry {
+
+        private final Inventory inventory;
+        private final int order;
+
+        private Entry(Inventory inventory, int order) {
+            this.inventory = inventory;
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package fr.maxlego08.menu.inventory;
+
+import fr.maxlego08.menu.api.button.Button;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buttons of an inventory or of a pattern, indexed by page.
+ * <p>
+ * The layout is computed once from the static slots. A permanent button is displayed on every page, the other buttons
+ * are only displayed on the page of their slot. The buttons of a page keep the order of the configuration.
+ * </p>
+ */
+public class PageLayout {
+
+    private final List<Button> permanentButtons;
+    private final Map<Integer, List<Button>> pages;
+    private final int maxSlot;
+    private final boolean isEmpty;
+
+    /**
+     * @param size    The inventory size
+     * @param buttons The buttons, in the order of the configuration
+     */
+    public PageLayout(int size, Collection<Button> buttons) {
+
+        List<Button> permanentButtons = new ArrayList<>();
+        Map<Integer, List<Button>> pages = new HashMap<>();
+        int maxSlot = Integer.MIN_VALUE;
+
+        for (Button button : buttons) {
+
+            int slot = button.getSlot();
+            maxSlot = Math.max(maxSlot, slot);
+
+            if (button.isPermanent()) {
+                if (slot < 0 || slot >= size) continue;
+                permanentButtons.add(button);
+                // The permanent button is added to every page already known, the next pages start with it
+                pages.values().forEach(list -> list.add(button));
+            } else if (slot >= 0) {
+                int page = slot / size + 1;
+                pages.computeIfAbsent(page, p -> new ArrayList<>(permanentButtons)).add(button);
+            }
+        }
+
+        pages.replaceAll((page, list) -> Collections.unmodifiableList(list));
+        this.permanentButtons = Collections.unmodifiableList(permanentButtons);
+        this.pages = pages;
+        this.maxSlot = maxSlot;
+        this.isEmpty = buttons.isEmpty();
+    }
+
+    /**
+     * @param page The page
+     * @return the buttons displayed on the page
+     */
+    public List<Button> getButtons(int page) {
+        return this.pages.getOrDefault(page, this.permanentButtons);
+    }
+
+    /**
+     * @return the highest slot of the buttons
+     */
+    public int getMaxSlot() {
+        return this.maxSlot;
+    }
+
+    /**
+     * @return true if there is no button
+     */
+    public boolean isEmpty() {
+        return this.isEmpty;
+    }
+}
@@ -0,0 +1,89 @@
+package fr.maxlego08.menu.inventory;
+
+import fr.maxlego08.menu.placeholder.PlaceholderContext;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time spent by each stage of the inventory opening.
+ * <ul>
+ *     <li>RESOLVE: buttons requirements, placeholders and ItemStack construction, asynchronous for the open async inventories</li>
+ *     <li>WAIT: time between the end of the resolution and the start of the commit on the main (or region) thread</li>
+ *     <li>COMMIT: ItemStacks placed in the bukkit inventory and inventory opened</li>
+ * </ul>
+ */
+public class RenderStatistics {
+
+    private final Stage resolve = new Stage();
+    private final Stage wait = new Stage();
+    private final Stage commit = new Stage();
+    private final AtomicLong resolvedPlaceholders = new AtomicLong();
+    private final AtomicLong reusedPlaceholders = new AtomicLong();
+
+    /**
+     * Count the placeholders of a render
+     *
+     * @param context The context of the render
+     */
+    public void recordPlaceholders(PlaceholderContext context) {
+        this.resolvedPlaceholders.addAndGet(context.getResolved());
+        this.reusedPlaceholders.addAndGet(context.getReused());
+    }
+
+    public long getResolvedPlaceholders() {
+        return resolvedPlaceholders.get();
+    }
+
+    public long getReusedPlaceholders() {
+        return reusedPlaceholders.get();
+    }
+
+    public Stage getResolve() {
+        return resolve;
+    }
+
+    public Stage getWait() {
+        return wait;
+    }
+
+    public Stage getCommit() {
+        return commit;
+    }
+
+    public static class Stage {
+
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        public void record(long nanos) {
+            this.count.incrementAndGet();
+            this.totalNanos.addAndGet(nanos);
+            this.maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        /**
+         * @return the average time in milliseconds
+         */
+        public double getAverageMillis() {
+            long count = this.count.get();
+            return count == 0 ? 0 : this.totalNanos.get() / (double) count / 1_000_000;
+        }
+
+        /**
+         * @return the max time in milliseconds
+         */
+        public double getMaxMillis() {
+            return this.maxNanos.get() / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d, avg %.3fms, max %.3fms", this.getCount(), this.getAverageMillis(), this.getMaxMillis());
+        }
+    }
+}
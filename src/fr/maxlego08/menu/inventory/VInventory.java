@@ -1,6 +1,7 @@
 package fr.maxlego08.menu.inventory;
 
 import fr.maxlego08.menu.MenuPlugin;
+import fr.maxlego08.menu.api.dupe.DupeManager;
 import fr.maxlego08.menu.exceptions.InventoryOpenException;
 import fr.maxlego08.menu.save.Config;
 import fr.maxlego08.menu.zcore.utils.ZUtils;
@@ -18,6 +19,7 @@ import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -25,7 +27,7 @@ public abstract class VInventory extends ZUtils implements Cloneable, InventoryH
 
     protected int id;
     protected MenuPlugin plugin;
-    protected Map<Integer, ItemButton> items = new HashMap<Integer, ItemButton>();
+    protected ItemButton[] items = new ItemButton[54];
     protected Player player;
     protected int page;
     protected Object[] args;
@@ -87,11 +89,18 @@ public abstract class VInventory extends ZUtils implements Cloneable, InventoryH
         createDefaultInventory();
 
         if (Config.enableAntiDupe && enableAntiDupe) {
-            itemStack = this.plugin.getDupeManager().protectItem(itemStack);
+            DupeManager dupeManager = this.plugin.getDupeManager();
+            // The items built from a protected prototype already have the tag, reading it is cheaper than writing it
+            if (!dupeManager.isDupeItem(itemStack)) {
+                itemStack = dupeManager.protectItem(itemStack);
+            }
         }
 
         ItemButton button = new ItemButton(itemStack, slot);
-        this.items.put(slot, button);
+        if (slot >= this.items.length) {
+            this.items = Arrays.copyOf(this.items, Math.max(slot + 1, this.inventory.getSize()));
+        }
+        this.items[slot] = button;
 
         if (this.openAsync) {
             ItemStack finalItem = itemStack;
@@ -103,15 +112,34 @@ public abstract class VInventory extends ZUtils implements Cloneable, InventoryH
     }
 
     public void removeItem(int slot) {
-        this.items.remove(slot);
+        if (slot >= 0 && slot < this.items.length) {
+            this.items[slot] = null;
+        }
     }
 
     public void clearItem() {
-        this.items.clear();
+        Arrays.fill(this.items, null);
     }
 
+    /**
+     * @param slot The slot
+     * @return the button of the slot, null if there is none
+     */
+    public ItemButton getItem(int slot) {
+        return slot >= 0 && slot < this.items.length ? this.items[slot] : null;
+    }
+
+    /**
+     * @return a copy of the buttons by slot
+     * @deprecated use {@link #getItem(int)}
+     */
+    @Deprecated
     public Map<Integer, ItemButton> getItems() {
-        return items;
+        Map<Integer, ItemButton> map = new HashMap<>();
+        for (int slot = 0; slot < this.items.length; slot++) {
+            if (this.items[slot] != null) map.put(slot, this.items[slot]);
+        }
+        return map;
     }
 
     public boolean isDisableClick() {
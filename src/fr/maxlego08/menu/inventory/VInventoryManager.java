@@ -4,6 +4,7 @@ import fr.maxlego08.menu.MenuPlugin;
 import fr.maxlego08.menu.exceptions.InventoryAlreadyExistException;
 import fr.maxlego08.menu.exceptions.InventoryOpenException;
 import fr.maxlego08.menu.listener.ListenerAdapter;
+import fr.maxlego08.menu.placeholder.PlaceholderCache;
 import fr.maxlego08.menu.save.Config;
 import fr.maxlego08.menu.zcore.enums.EnumInventory;
 import fr.maxlego08.menu.zcore.enums.Message;
@@ -148,7 +149,7 @@ public class VInventoryManager extends ListenerAdapter {
             this.cooldownClick.put(player.getUniqueId(),
                     System.currentTimeMillis() + Config.cooldownClickMilliseconds);
 
-            ItemButton button = inventory.getItems().getOrDefault(event.getSlot(), null);
+            ItemButton button = inventory.getItem(event.getSlot());
             if (button != null) {
                 button.onClick(event);
             }
@@ -206,5 +207,6 @@ public class VInventoryManager extends ListenerAdapter {
     @Override
     protected void onQuit(PlayerQuitEvent event, Player player) {
         this.cooldownClick.remove(player.getUniqueId());
+        PlaceholderCache.getInstance().purge(player.getUniqueId());
     }
 }
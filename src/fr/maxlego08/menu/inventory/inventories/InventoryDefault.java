@@ -8,11 +8,16 @@ import fr.maxlego08.menu.api.pattern.Pattern;
 import fr.maxlego08.menu.api.scheduler.ZScheduler;
 import fr.maxlego08.menu.api.utils.Placeholders;
 import fr.maxlego08.menu.exceptions.InventoryOpenException;
+import fr.maxlego08.menu.inventory.RenderStatistics;
 import fr.maxlego08.menu.inventory.VInventory;
+import fr.maxlego08.menu.placeholder.PlaceholderContext;
+import fr.maxlego08.menu.save.Config;
+import fr.maxlego08.menu.scheduler.RefreshTask;
 import fr.maxlego08.menu.zcore.logger.Logger;
 import fr.maxlego08.menu.zcore.utils.inventory.InventoryResult;
 import fr.maxlego08.menu.zcore.utils.inventory.ItemButton;
 import fr.maxlego08.menu.zcore.utils.meta.Meta;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.ClickType;
 import org.bukkit.event.inventory.InventoryClickEvent;
@@ -27,7 +32,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TimerTask;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -35,14 +40,18 @@ import java.util.stream.Collectors;
  */
 public class InventoryDefault extends VInventory {
 
-    private final Map<Integer, TimerTask> timers = new HashMap<>();
+    private final Map<Integer, RefreshTask> timers = new HashMap<>();
+    private final Map<Integer, RenderedSlot> renderedSlots = new HashMap<>();
     private Inventory inventory;
     private List<Inventory> oldInventories;
     private List<Button> buttons;
     private int maxPage = 1;
     private boolean isAsync = false;
+    private List<Runnable> renderFrame;
 
     private List<Button> updatedButtons = new ArrayList<>();
+    private List<Button> globalClickButtons = new ArrayList<>();
+    private List<Button> globalDragButtons = new ArrayList<>();
 
     @Override
     public InventoryResult openInventory(MenuPlugin main, Player player, int page, Object... args) throws InventoryOpenException {
@@ -56,6 +65,10 @@ public class InventoryDefault extends VInventory {
 
         this.oldInventories = (List<Inventory>) args[1];
 
+        if (Config.enableAntiDupe) {
+            this.plugin.getDupeExposure().expose(player.getUniqueId());
+        }
+
         Collection<Pattern> patterns = this.inventory.getPatterns();
 
         this.maxPage = this.inventory.getMaxPage(patterns, player, args);
@@ -65,30 +78,68 @@ public class InventoryDefault extends VInventory {
         this.buttons.addAll(this.inventory.sortButtons(page, args));
 
         this.updatedButtons = this.buttons.stream().filter(Button::updateOnClick).collect(Collectors.toList());
+        // Only these buttons receive all the clicks and drags, the other clicks are sent to the slot's button
+        this.globalClickButtons = this.buttons.stream().filter(Button::hasGlobalClick).collect(Collectors.toList());
+        this.globalDragButtons = this.buttons.stream().filter(Button::hasGlobalDrag).collect(Collectors.toList());
         isAsync = this.buttons.stream().anyMatch(Button::isOpenAsync);
         InventoryManager manager = this.plugin.getInventoryManager();
         manager.setPlayerPage(player, page, maxPage);
 
         ZScheduler scheduler = this.plugin.getScheduler();
+        RenderStatistics statistics = this.plugin.getRenderStatistics();
+        PlaceholderContext placeholderContext = new PlaceholderContext(player);
         Runnable runnable = () -> {
-            this.buttons.forEach(button -> button.onInventoryOpen(player, this));
 
-            String inventoryName = this.getMessage(this.inventory.getName(player), "%page%", page, "%maxPage%", this.maxPage);
-            super.createMetaInventory(super.papi(inventoryName, player, false), this.inventory.size());
+            long resolveStart = System.nanoTime();
+            placeholderContext.enter();
+            try {
+                // In async mode, the ItemStacks are built here and placed in the inventory in a single task
+                if (isAsync) this.renderFrame = new ArrayList<>();
+
+                this.buttons.forEach(button -> button.onInventoryOpen(player, this));
+
+                String inventoryName = this.getMessage(this.inventory.getName(player), "%page%", page, "%maxPage%", this.maxPage);
+                super.createMetaInventory(super.papi(inventoryName, player, false), this.inventory.size());
 
-            // Display fill items
-            if (this.inventory.getFillItemStack() != null) {
-                for (int a = 0; a != super.getSpigotInventory().getContents().length; a++) {
-                    this.addItem(a, this.inventory.getFillItemStack().build(player));
+                // Display fill items
+                if (this.inventory.getFillItemStack() != null) {
+                    int size = super.getSpigotInventory().getContents().length;
+                    for (int a = 0; a != size; a++) {
+                        int slot = a;
+                        ItemStack fillItemStack = this.inventory.getFillItemStack().build(player, true, new Placeholders(), Config.enableAntiDupe);
+                        this.commit(() -> this.addItem(slot, fillItemStack));
+                    }
                 }
+
+                // Display buttons
+                this.buttons.forEach(this::buildButton);
+            } finally {
+                placeholderContext.exit();
             }
 
-            // Display buttons
-            this.buttons.forEach(this::buildButton);
+            statistics.getResolve().record(System.nanoTime() - resolveStart);
 
             if (isAsync) {
+
+                List<Runnable> frame = this.renderFrame;
+                this.renderFrame = null;
+
+                long resolveEnd = System.nanoTime();
                 scheduler.runTask(player.getLocation(), () -> {
+
+                    long commitStart = System.nanoTime();
+                    statistics.getWait().record(commitStart - resolveEnd);
+
+                    placeholderContext.enter();
+                    try {
+                        frame.forEach(Runnable::run);
+                    } finally {
+                        placeholderContext.exit();
+                    }
                     player.openInventory(this.getSpigotInventory());
+
+                    statistics.getCommit().record(System.nanoTime() - commitStart);
+                    statistics.recordPlaceholders(placeholderContext);
                 });
             }
         };
@@ -100,6 +151,7 @@ public class InventoryDefault extends VInventory {
         } else {
 
             runnable.run();
+            statistics.recordPlaceholders(placeholderContext);
             return InventoryResult.SUCCESS;
         }
     }
@@ -112,18 +164,27 @@ public class InventoryDefault extends VInventory {
     @Override
     protected void onClose(InventoryCloseEvent event, MenuPlugin plugin, Player player) {
 
+        // The exposure starts again from the close, the items may have been taken just before
+        if (Config.enableAntiDupe) {
+            plugin.getDupeExposure().expose(player.getUniqueId());
+        }
+
         this.inventory.closeInventory(player, this);
         this.buttons.forEach(button -> button.onInventoryClose(player, this));
     }
 
     @Override
     protected void onDrag(InventoryDragEvent event, MenuPlugin plugin, Player player) {
-        this.buttons.forEach(button -> button.onDrag(event, player, this));
+        for (Button button : this.globalDragButtons) {
+            button.onDrag(event, player, this);
+        }
     }
 
     @Override
     public void onInventoryClick(InventoryClickEvent event, MenuPlugin plugin, Player player) {
-        this.buttons.forEach(button -> button.onInventoryClick(event, player, this));
+        for (Button button : this.globalClickButtons) {
+            button.onInventoryClick(event, player, this);
+        }
     }
 
     /**
@@ -173,19 +234,30 @@ public class InventoryDefault extends VInventory {
 
         if (button.hasSpecialRender()) {
 
-            Runnable runnable = () -> button.onRender(player, this);
-            if (isAsync) plugin.getScheduler().runTask(player.getLocation(), runnable);
-            else runnable.run();
+            this.commit(() -> button.onRender(player, this));
 
         } else {
 
-            Runnable runnable = () -> this.displayFinalButton(button, button.getRealSlot(this.inventory.size(), this.page));
-
-            if (isAsync) plugin.getScheduler().runTask(player.getLocation(), runnable);
-            else runnable.run();
+            // The ItemStack is built now, asynchronously for the open async inventories
+            RenderedSlot renderedSlot = this.render(button);
+            ItemStack itemStack = button.getCustomItemStack(this.player);
+            int slot = button.getRealSlot(this.inventory.size(), this.page);
+            this.commit(() -> this.displayFinalButton(button, itemStack, renderedSlot, slot));
         }
     }
 
+    /**
+     * Run an action on the bukkit inventory, during an async render the action is added to the frame which will be
+     * applied in a single task on the main thread
+     *
+     * @param runnable The action
+     */
+    private void commit(Runnable runnable) {
+        List<Runnable> frame = this.renderFrame;
+        if (frame != null) frame.add(runnable);
+        else runnable.run();
+    }
+
     /**
      * Allows to display the button and to put the actions on the clicks
      *
@@ -193,8 +265,34 @@ public class InventoryDefault extends VInventory {
      * @param slots
      */
     public void displayFinalButton(Button button, int... slots) {
+        RenderedSlot renderedSlot = this.render(button);
+        this.displayFinalButton(button, button.getCustomItemStack(this.player), renderedSlot, slots);
+    }
+
+    /**
+     * Name and lore of an updated button, resolved before its item is built. A placeholder which changes during the
+     * build is then sent again by the first refresh.
+     *
+     * @param button The button
+     * @return the name and lore, null if the button is not refreshed slot by slot
+     */
+    private RenderedSlot render(Button button) {
+        if (!button.isUpdated() || button.isUpdatedMasterButton()) return null;
+        List<String> lore = this.papi(button.buildLore(this.player), this.player, true);
+        String displayName = this.papi(button.buildDisplayName(this.player), this.player, true);
+        return new RenderedSlot(displayName, lore);
+    }
+
+    /**
+     * Allows to display an already built button and to put the actions on the clicks
+     *
+     * @param button
+     * @param itemStack
+     * @param renderedSlot
+     * @param slots
+     */
+    private void displayFinalButton(Button button, ItemStack itemStack, RenderedSlot renderedSlot, int... slots) {
 
-        ItemStack itemStack = button.getCustomItemStack(this.player);
         for (int slot : slots) {
 
             if (slot < 0) {
@@ -231,18 +329,14 @@ public class InventoryDefault extends VInventory {
 
             if (button.isUpdated()) {
 
-                TimerTask timerTask = this.scheduleFix(this.plugin, this.inventory.getUpdateInterval(), (task, canRun) -> {
-
-                    if (!canRun) {
-                        return;
-                    }
+                RefreshTask refreshTask = this.plugin.getRefreshScheduler().schedule(this.player, this.inventory.getUpdateInterval(), task -> {
 
                     if (this.isClose()) {
                         task.cancel();
                         return;
                     }
 
-                    TimerTask tTask = this.timers.get(slot);
+                    RefreshTask tTask = this.timers.get(slot);
                     if (!task.equals(tTask)) {
                         task.cancel();
                         return;
@@ -256,26 +350,38 @@ public class InventoryDefault extends VInventory {
                         return;
                     }
 
-                    ItemMeta itemMeta = itemStack.getItemMeta();
+                    // Placeholders are resolved before the comparison, the item is only sent to the client if the result has changed
+                    RenderedSlot rendered = this.render(button);
+                    if (rendered.isSame(this.renderedSlots.get(slot))) {
+                        this.plugin.getRefreshScheduler().markSkipped();
+                        return;
+                    }
+                    this.renderedSlots.put(slot, rendered);
 
-                    List<String> lore = button.buildLore(this.player);
-                    String displayName = button.buildDisplayName(this.player);
+                    // The built item can be shared by the cache, the refreshed item is a copy
+                    ItemStack refreshedItem = itemStack.clone();
+                    ItemMeta itemMeta = refreshedItem.getItemMeta();
 
-                    if (!lore.isEmpty()) Meta.meta.updateLore(itemMeta, lore, this.player);
-                    if (displayName != null) Meta.meta.updateDisplayName(itemMeta, displayName, this.player);
+                    // Placeholders are already resolved, the player is not given to avoid a second resolution
+                    if (!rendered.lore.isEmpty()) Meta.meta.updateLore(itemMeta, rendered.lore, (OfflinePlayer) null);
+                    if (rendered.displayName != null) Meta.meta.updateDisplayName(itemMeta, rendered.displayName, (OfflinePlayer) null);
 
-                    itemStack.setItemMeta(itemMeta);
-                    this.getSpigotInventory().setItem(slot, itemStack);
+                    refreshedItem.setItemMeta(itemMeta);
+                    this.getSpigotInventory().setItem(slot, refreshedItem);
+                    this.plugin.getRefreshScheduler().markApplied();
                 });
 
-                this.timers.put(slot, timerTask);
+                this.cancel(slot);
+                if (renderedSlot != null) this.renderedSlots.put(slot, renderedSlot);
+                else this.renderedSlots.remove(slot);
+                this.timers.put(slot, refreshTask);
             }
         }
 
     }
 
     public void cancel(int slot) {
-        TimerTask task = this.timers.get(slot);
+        RefreshTask task = this.timers.get(slot);
         if (task != null) {
             task.cancel();
         }
@@ -309,4 +415,22 @@ public class InventoryDefault extends VInventory {
     public List<Button> getButtons() {
         return buttons;
     }
+
+    /**
+     * Name and lore last sent for an updated slot, after placeholder resolution
+     */
+    private static class RenderedSlot {
+
+        private final String displayName;
+        private final List<String> lore;
+
+        private RenderedSlot(String displayName, List<String> lore) {
+            this.displayName = displayName;
+            this.lore = lore;
+        }
+
+        private boolean isSame(RenderedSlot renderedSlot) {
+            return renderedSlot != null && Objects.equals(this.displayName, renderedSlot.displayName) && Objects.equals(this.lore, renderedSlot.lore);
+        }
+    }
 }
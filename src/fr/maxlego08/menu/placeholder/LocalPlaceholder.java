@@ -7,10 +7,8 @@ import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class LocalPlaceholder {
@@ -20,8 +18,9 @@ public class LocalPlaceholder {
      */
     private static volatile LocalPlaceholder instance;
     private final String prefix = "zmenu";
-    private final Pattern pattern = Pattern.compile("[%]([^%]+)[%]");
+    private final String realPrefix = this.prefix + "_";
     private final List<AutoPlaceholder> autoPlaceholders = new ArrayList<>();
+    private final Node root = new Node();
     private MenuPlugin plugin;
 
     /**
@@ -45,8 +44,20 @@ public class LocalPlaceholder {
         return instance;
     }
 
-    public void register(String startWith, ReturnBiConsumer<OfflinePlayer, String, String> biConsumer) {
-        this.autoPlaceholders.add(new AutoPlaceholder(startWith, biConsumer));
+    public synchronized void register(String startWith, ReturnBiConsumer<OfflinePlayer, String, String> biConsumer) {
+        AutoPlaceholder autoPlaceholder = new AutoPlaceholder(startWith, biConsumer);
+        this.autoPlaceholders.add(autoPlaceholder);
+
+        Node node = this.root;
+        for (int i = 0; i < startWith.length(); i++) {
+            node = node.children.computeIfAbsent(startWith.charAt(i), c -> new Node());
+        }
+
+        // If the same prefix is registered twice, the first one is kept
+        if (node.placeholder == null) {
+            node.index = this.autoPlaceholders.size() - 1;
+            node.placeholder = autoPlaceholder;
+        }
     }
 
     /**
@@ -56,24 +67,46 @@ public class LocalPlaceholder {
      */
     public String setPlaceholders(OfflinePlayer offlinePlayer, String placeholder) {
 
-        if (placeholder == null || !placeholder.contains("%")) {
+        if (placeholder == null) {
+            return null;
+        }
+
+        int index = placeholder.indexOf('%');
+        if (index < 0) {
             return placeholder;
         }
 
-        final String realPrefix = this.prefix + "_";
+        StringBuilder builder = null;
+        int literalStart = 0;
+
+        // Same delimitation as PlaceholderAPI, a placeholder is between two percent signs
+        while (index >= 0) {
+            int end = placeholder.indexOf('%', index + 1);
+            if (end < 0) break;
 
-        Matcher matcher = this.pattern.matcher(placeholder);
-        while (matcher.find()) {
-            String stringPlaceholder = matcher.group(0);
-            String regex = matcher.group(1).replace(realPrefix, "");
-            String replace = this.onRequest(offlinePlayer, regex);
+            if (end == index + 1) {
+                index = end;
+                continue;
+            }
+
+            int start = placeholder.startsWith(this.realPrefix, index + 1) ? index + 1 + this.realPrefix.length() : index + 1;
+            String replace = this.onRequest(offlinePlayer, placeholder.substring(start, end));
 
             if (replace != null) {
-                placeholder = placeholder.replace(stringPlaceholder, replace);
+                if (builder == null) builder = new StringBuilder(placeholder.length());
+                builder.append(placeholder, literalStart, index).append(replace);
+                literalStart = end + 1;
             }
+
+            index = placeholder.indexOf('%', end + 1);
         }
 
-        return placeholder;
+        if (builder == null) {
+            return placeholder;
+        }
+
+        builder.append(placeholder, literalStart, placeholder.length());
+        return builder.toString();
     }
 
     public List<String> setPlaceholders(OfflinePlayer offlinePlayer, List<String> lore) {
@@ -82,13 +115,24 @@ public class LocalPlaceholder {
 
     public String onRequest(OfflinePlayer offlinePlayer, String string) {
 
-        Optional<AutoPlaceholder> optional = this.autoPlaceholders.stream().filter(e -> string.startsWith(e.getStartWith())).findFirst();
-        if (optional.isPresent()) {
-
-            AutoPlaceholder autoPlaceholder = optional.get();
-            String value = string.replace(autoPlaceholder.getStartWith(), "");
-            return autoPlaceholder.accept(offlinePlayer, value);
+        // Walk the prefix tree, the first registered placeholder which matches is used
+        AutoPlaceholder autoPlaceholder = null;
+        int bestIndex = Integer.MAX_VALUE;
+        int length = 0;
+
+        Node node = this.root;
+        for (int i = 0; node != null; i++) {
+            if (node.placeholder != null && node.index < bestIndex) {
+                autoPlaceholder = node.placeholder;
+                bestIndex = node.index;
+                length = i;
+            }
+            if (i == string.length()) break;
+            node = node.children.get(string.charAt(i));
+        }
 
+        if (autoPlaceholder != null) {
+            return autoPlaceholder.accept(offlinePlayer, string.substring(length));
         }
 
         return null;
@@ -111,4 +155,12 @@ public class LocalPlaceholder {
         this.plugin = plugin;
     }
 
+    private static class Node {
+
+        private final Map<Character, Node> children = new ConcurrentHashMap<>();
+        private volatile AutoPlaceholder placeholder;
+        private volatile int index;
+
+    }
+
 }
@@ -0,0 +1,285 @@
+package fr.maxlego08.menu.placeholder;
+
+import fr.maxlego08.menu.save.Config;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared cache of the PlaceholderAPI results.
+ * <p>
+ * Entries are stored per player then per placeholder string, the entries of a player are removed at once when they
+ * quit. Each player has its own lock, two players never wait for each other on a lookup.
+ * The time to live of an entry depends on the placeholders it contains, see {@link Config#cachePlaceholderAPITtl}.
+ * The cache is bounded by {@link Config#cachePlaceholderAPIMaxSize}, the least recently used entries are evicted
+ * first: the entries of a player are ordered by access and each access takes a global tick, the entry evicted is the
+ * oldest of the players' least recently used entries.
+ * </p>
+ */
+public class PlaceholderCache {
+
+    /**
+     * static Singleton instance.
+     */
+    private static volatile PlaceholderCache instance;
+    private final ConcurrentMap<UUID, PlayerEntries> players = new ConcurrentHashMap<>();
+    // Number of entries, a replaced entry is not counted twice
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Private constructor for singleton.
+     */
+    private PlaceholderCache() {
+    }
+
+    /**
+     * Return a singleton instance of PlaceholderCache.
+     */
+    public static PlaceholderCache getInstance() {
+        // Double lock for thread safety.
+        if (instance == null) {
+            synchronized (PlaceholderCache.class) {
+                if (instance == null) {
+                    instance = new PlaceholderCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the cached value
+     *
+     * @param placeholder The string given to PlaceholderAPI
+     * @param uniqueId    The player's uuid
+     * @return the value, null if there is no valid entry
+     */
+    public String get(String placeholder, UUID uniqueId) {
+
+        PlayerEntries entries = this.players.get(uniqueId);
+        if (entries != null) {
+            synchronized (entries) {
+                // The access moves the entry to the end of the player's entries
+                CacheEntry entry = entries.get(placeholder);
+                if (entry != null && entry.isValid()) {
+                    entry.lastAccess = this.clock.incrementAndGet();
+                    this.hits.incrementAndGet();
+                    return entry.value;
+                }
+                if (entry != null) this.remove(uniqueId, entries, placeholder);
+            }
+        }
+
+        this.misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Store a value
+     *
+     * @param placeholder The string given to PlaceholderAPI
+     * @param uniqueId    The player's uuid
+     * @param value       The result
+     */
+    public void put(String placeholder, UUID uniqueId, String value) {
+        long ttl = this.getTimeToLive(placeholder);
+        if (ttl == 0) return;
+
+        CacheEntry entry = new CacheEntry(value, ttl < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + ttl);
+        while (true) {
+            PlayerEntries entries = this.players.computeIfAbsent(uniqueId, key -> new PlayerEntries());
+            synchronized (entries) {
+                // The entries were purged or evicted meanwhile
+                if (entries.removed) continue;
+                entry.lastAccess = this.clock.incrementAndGet();
+                if (entries.put(placeholder, entry) == null) this.size.incrementAndGet();
+            }
+            break;
+        }
+
+        if (this.size.get() > Config.cachePlaceholderAPIMaxSize) this.evict();
+    }
+
+    /**
+     * Remove the least recently used entries until the cache fits its size, only one thread evicts at a time
+     */
+    private void evict() {
+        if (!this.evicting.compareAndSet(false, true)) return;
+        try {
+            while (this.size.get() > Config.cachePlaceholderAPIMaxSize) {
+
+                UUID oldestUniqueId = null;
+                PlayerEntries oldestEntries = null;
+                long oldestAccess = Long.MAX_VALUE;
+                for (Map.Entry<UUID, PlayerEntries> player : this.players.entrySet()) {
+                    PlayerEntries entries = player.getValue();
+                    synchronized (entries) {
+                        if (entries.isEmpty()) continue;
+                        long lastAccess = entries.values().iterator().next().lastAccess;
+                        if (lastAccess < oldestAccess) {
+                            oldestAccess = lastAccess;
+                            oldestUniqueId = player.getKey();
+                            oldestEntries = entries;
+                        }
+                    }
+                }
+                if (oldestEntries == null) return;
+
+                synchronized (oldestEntries) {
+                    if (oldestEntries.isEmpty()) continue;
+                    Iterator<Map.Entry<String, CacheEntry>> iterator = oldestEntries.entrySet().iterator();
+                    Map.Entry<String, CacheEntry> eldest = iterator.next();
+                    // Accessed since the scan, the scan is done again
+                    if (eldest.getValue().lastAccess != oldestAccess) continue;
+                    this.remove(oldestUniqueId, oldestEntries, eldest.getKey());
+                    this.evictions.incrementAndGet();
+                }
+            }
+        } finally {
+            this.evicting.set(false);
+        }
+    }
+
+    /**
+     * Remove an entry, called with the lock of the player's entries
+     */
+    private void remove(UUID uniqueId, PlayerEntries entries, String placeholder) {
+        if (entries.remove(placeholder) == null) return;
+        this.size.decrementAndGet();
+        if (entries.isEmpty()) {
+            entries.removed = true;
+            this.players.remove(uniqueId, entries);
+        }
+    }
+
+    /**
+     * Remove all the entries of a player
+     *
+     * @param uniqueId The player's uuid
+     */
+    public void purge(UUID uniqueId) {
+        PlayerEntries entries = this.players.remove(uniqueId);
+        if (entries != null) this.discard(entries);
+    }
+
+    public void clear() {
+        for (UUID uniqueId : this.players.keySet()) {
+            this.purge(uniqueId);
+        }
+    }
+
+    private void discard(PlayerEntries entries) {
+        synchronized (entries) {
+            if (entries.removed) return;
+            entries.removed = true;
+            this.size.addAndGet(-entries.size());
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        return this.size.get();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * The time to live of a string is the smallest time to live of its placeholders.
+     * A placeholder without configuration uses {@link Config#cachePlaceholderAPI}.
+     *
+     * @param placeholder The string given to PlaceholderAPI
+     * @return the time to live in milliseconds, negative for no expiration
+     */
+    private long getTimeToLive(String placeholder) {
+
+        Map<String, Long> ttls = Config.cachePlaceholderAPITtl;
+        if (ttls == null || ttls.isEmpty()) return Config.cachePlaceholderAPI;
+
+        long result = Long.MAX_VALUE;
+        boolean forever = true;
+        // The placeholders are found like in PlaceholderAPI, a lone percent sign is skipped
+        int index = placeholder.indexOf('%');
+        while (index >= 0) {
+            int end = PlaceholderScanner.findEnd(placeholder, index);
+            if (end < 0) {
+                index = placeholder.indexOf('%', index + 1);
+                continue;
+            }
+
+            long ttl = this.getTimeToLive(placeholder, index, end + 1, ttls);
+            if (ttl >= 0) {
+                forever = false;
+                result = Math.min(result, ttl);
+            }
+            index = placeholder.indexOf('%', end + 1);
+        }
+
+        return forever ? -1 : result;
+    }
+
+    private long getTimeToLive(String placeholder, int start, int end, Map<String, Long> ttls) {
+        for (Map.Entry<String, Long> entry : ttls.entrySet()) {
+            String pattern = entry.getKey();
+            int length = pattern.length();
+            if (pattern.endsWith("*")) {
+                length--;
+                if (end - start >= length && placeholder.regionMatches(start, pattern, 0, length)) return entry.getValue();
+            } else if (end - start == length && placeholder.regionMatches(start, pattern, 0, length)) {
+                return entry.getValue();
+            }
+        }
+        return Config.cachePlaceholderAPI;
+    }
+
+    /**
+     * The entries of a player in access order, guarded by itself
+     */
+    private static class PlayerEntries extends LinkedHashMap<String, CacheEntry> {
+
+        // Removed from the cache, a new map is created for the next entries
+        private boolean removed;
+
+        private PlayerEntries() {
+            super(16, 0.75f, true);
+        }
+    }
+
+    private static class CacheEntry {
+
+        private final String value;
+        private final long expireAt;
+        // Tick of the last access, guarded by the player's entries
+        private long lastAccess;
+
+        private CacheEntry(String value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isValid() {
+            return System.currentTimeMillis() < this.expireAt;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package fr.maxlego08.menu.placeholder;
+
+import org.bukkit.OfflinePlayer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Placeholders resolved during the render of an inventory.
+ * <p>
+ * While the context is entered on a thread, each distinct <b>%identifier_params%</b> of the player is given to
+ * PlaceholderAPI only once, the value is then reused in every name, lore, material and model id of the inventory.
+ * </p>
+ */
+public class PlaceholderContext {
+
+    private static final ThreadLocal<PlaceholderContext> CURRENT = new ThreadLocal<>();
+
+    private final UUID uniqueId;
+    private final Map<String, String> values = new HashMap<>();
+    private PlaceholderContext previous;
+    private int resolved;
+    private int reused;
+
+    public PlaceholderContext(OfflinePlayer player) {
+        this.uniqueId = player.getUniqueId();
+    }
+
+    /**
+     * @return the context entered on the current thread, null if there is none
+     */
+    public static PlaceholderContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Use this context on the current thread until {@link #exit()}
+     */
+    public void enter() {
+        this.previous = CURRENT.get();
+        CURRENT.set(this);
+    }
+
+    public void exit() {
+        if (this.previous == null) CURRENT.remove();
+        else CURRENT.set(this.previous);
+        this.previous = null;
+    }
+
+    public boolean isFor(OfflinePlayer player) {
+        return this.uniqueId.equals(player.getUniqueId());
+    }
+
+    /**
+     * Replace each placeholder of the string, a placeholder already seen in this context is not resolved again.
+     * The placeholders are found like in PlaceholderAPI, see {@link PlaceholderScanner}.
+     *
+     * @param string   The string
+     * @param resolver Resolve a single placeholder, with its percent signs
+     * @return the string with the values of the placeholders
+     */
+    public String resolve(String string, Function<String, String> resolver) {
+
+        int index = string.indexOf('%');
+        if (index < 0) return string;
+
+        StringBuilder builder = new StringBuilder(string.length());
+        int literalStart = 0;
+
+        while (index >= 0) {
+            int end = PlaceholderScanner.findEnd(string, index);
+            if (end < 0) {
+                index = string.indexOf('%', index + 1);
+                continue;
+            }
+
+            String token = string.substring(index, end + 1);
+            String value = this.values.get(token);
+            if (value == null) {
+                value = resolver.apply(token);
+                if (value == null) value = token;
+                this.values.put(token, value);
+                this.resolved++;
+            } else {
+                this.reused++;
+            }
+
+            builder.append(string, literalStart, index).append(value);
+            literalStart = end + 1;
+            index = string.indexOf('%', literalStart);
+        }
+
+        builder.append(string, literalStart, string.length());
+        return builder.toString();
+    }
+
+    /**
+     * @return the number of placeholders given to PlaceholderAPI
+     */
+    public int getResolved() {
+        return resolved;
+    }
+
+    /**
+     * @return the number of placeholders taken from this context
+     */
+    public int getReused() {
+        return reused;
+    }
+}
@@ -0,0 +1,44 @@
+package fr.maxlego08.menu.placeholder;
+
+/**
+ * Find the placeholders of a string with the rule of PlaceholderAPI.
+ * <p>
+ * A placeholder is <b>%identifier_params%</b>. The identifier ends at the first underscore or at the closing percent
+ * sign and contains only letters, digits, dashes and dots, so a percent sign followed by a space, like in
+ * <b>100% off for %player_name%</b>, does not start a placeholder. The params can contain anything except a percent
+ * sign.
+ * </p>
+ */
+public final class PlaceholderScanner {
+
+    private PlaceholderScanner() {
+    }
+
+    /**
+     * Find the end of the placeholder which starts at a percent sign
+     *
+     * @param string The string
+     * @param start  The index of the percent sign
+     * @return the index of the closing percent sign, -1 if no placeholder starts here, the scan then continues at
+     * the next percent sign after start
+     */
+    public static int findEnd(String string, int start) {
+
+        int length = string.length();
+        int index = start + 1;
+
+        // The identifier
+        while (index < length) {
+            char character = string.charAt(index);
+            if (character == '_') break;
+            if (character == '%') return index == start + 1 ? -1 : index;
+            if (!Character.isLetterOrDigit(character) && character != '-' && character != '.') return -1;
+            index++;
+        }
+
+        if (index == start + 1) return -1;
+
+        // The params
+        return index < length ? string.indexOf('%', index + 1) : -1;
+    }
+}
@@ -0,0 +1,98 @@
+package fr.maxlego08.menu.players;
+
+import fr.maxlego08.menu.MenuPlugin;
+import fr.maxlego08.menu.api.players.Data;
+import fr.maxlego08.menu.api.scheduler.ZScheduler;
+import fr.maxlego08.menu.save.Config;
+import fr.maxlego08.menu.scheduler.BukkitScheduler;
+import fr.maxlego08.menu.scheduler.FoliaScheduler;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Expiration dates of the player data, in a min-heap ordered by {@link Data#getExpiredAt()}.
+ * <p>
+ * An asynchronous task runs every {@link Config#playerDataExpirationSweepTicks} ticks and removes the data which
+ * have expired, the reads no longer have to scan the data of the player. An entry of the heap is ignored if the data
+ * has been replaced or removed in the meantime.
+ * </p>
+ */
+public class DataExpirations {
+
+    private final ZDataManager manager;
+    private final PriorityQueue<Expiration> queue = new PriorityQueue<>(Comparator.comparingLong(expiration -> expiration.expiredAt));
+    private ZScheduler timer;
+
+    public DataExpirations(ZDataManager manager) {
+        this.manager = manager;
+    }
+
+    public void start(MenuPlugin plugin) {
+        if (this.timer != null) return;
+        this.timer = MenuPlugin.isFolia() ? new FoliaScheduler(plugin) : new BukkitScheduler(plugin);
+        long period = Math.max(1, Config.playerDataExpirationSweepTicks);
+        this.timer.runTaskTimerAsynchronously(period, period, this::sweep);
+    }
+
+    public void stop() {
+        if (this.timer != null) {
+            this.timer.cancel();
+            this.timer = null;
+        }
+    }
+
+    /**
+     * Track the expiration of a data, a data without expiration is ignored
+     *
+     * @param uniqueId The player's uuid
+     * @param data     The data
+     */
+    public void schedule(UUID uniqueId, Data data) {
+        if (data.getExpiredAt() <= 0) return;
+        Expiration expiration = new Expiration(uniqueId, data);
+        synchronized (this.queue) {
+            this.queue.add(expiration);
+        }
+    }
+
+    /**
+     * Remove the expired data
+     */
+    public void sweep() {
+
+        long now = System.currentTimeMillis();
+        List<Expiration> expirations = new ArrayList<>();
+        synchronized (this.queue) {
+            while (!this.queue.isEmpty() && this.queue.peek().expiredAt < now) {
+                expirations.add(this.queue.poll());
+            }
+        }
+
+        for (Expiration expiration : expirations) {
+            this.manager.expire(expiration.uniqueId, expiration.data);
+        }
+    }
+
+    public int size() {
+        synchronized (this.queue) {
+            return this.queue.size();
+        }
+    }
+
+    private static class Expiration {
+
+        private final UUID uniqueId;
+        private final Data data;
+        private final long expiredAt;
+
+        private Expiration(UUID uniqueId, Data data) {
+            this.uniqueId = uniqueId;
+            this.data = data;
+            this.expiredAt = data.getExpiredAt();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package fr.maxlego08.menu.players;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Players which are not online but have been loaded recently, by a placeholder, a command or because they have just
+ * left. The least recently used player is removed when the cache is full, it is detached from the manager. A player
+ * whose changes are not written yet, or who is still loading, is never removed, the cache can be bigger than its size until they are written.
+ */
+public class PlayerDataCache {
+
+    private final LinkedHashMap<UUID, ZPlayerData> players = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxSize;
+    private final Predicate<UUID> unwrittenChanges;
+
+    /**
+     * @param maxSize          The number of players kept
+     * @param unwrittenChanges Test if a player has changes which are not written yet
+     */
+    public PlayerDataCache(int maxSize, Predicate<UUID> unwrittenChanges) {
+        this.maxSize = Math.max(1, maxSize);
+        this.unwrittenChanges = unwrittenChanges;
+    }
+
+    public synchronized ZPlayerData get(UUID uniqueId) {
+        return this.players.get(uniqueId);
+    }
+
+    /**
+     * Add a player, if the player is already in the cache the data which is not present is merged into it
+     *
+     * @param playerData The player
+     * @return the player in the cache
+     */
+    public ZPlayerData put(ZPlayerData playerData) {
+
+        List<ZPlayerData> evicted = new ArrayList<>();
+        ZPlayerData result;
+        synchronized (this) {
+            ZPlayerData current = this.players.get(playerData.getUniqueId());
+            if (current != null && current != playerData) {
+                current.mergeAbsent(playerData);
+                return current;
+            }
+
+            this.players.put(playerData.getUniqueId(), playerData);
+            result = playerData;
+            // The least recently used players first, the players with unwritten changes are kept
+            Iterator<Map.Entry<UUID, ZPlayerData>> iterator = this.players.entrySet().iterator();
+            while (this.players.size() > this.maxSize && iterator.hasNext()) {
+                Map.Entry<UUID, ZPlayerData> entry = iterator.next();
+                if (entry.getValue() == result || entry.getValue().isLoading() || this.unwrittenChanges.test(entry.getKey())) continue;
+                evicted.add(entry.getValue());
+                iterator.remove();
+            }
+        }
+
+        evicted.forEach(playerData -> playerData.setManager(null));
+        return result;
+    }
+
+    public synchronized ZPlayerData remove(UUID uniqueId) {
+        return this.players.remove(uniqueId);
+    }
+
+    public synchronized void clear() {
+        this.players.values().forEach(playerData -> playerData.setManager(null));
+        this.players.clear();
+    }
+
+    public synchronized int size() {
+        return this.players.size();
+    }
+}
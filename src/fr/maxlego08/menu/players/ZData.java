@@ -1,18 +1,52 @@
 package fr.maxlego08.menu.players;
 
 import fr.maxlego08.menu.api.players.Data;
+import fr.maxlego08.menu.api.players.DataType;
 
+/**
+ * A data with a typed value.
+ * <p>
+ * Numbers are stored as a primitive long or double, {@link #add(int)} and {@link #remove(int)} no longer parse the
+ * value and a double is not truncated. The type is deduced from the value given to the constructor.
+ * </p>
+ * <p>
+ * The type and the value are published together in an immutable {@link Value}, so a reader never sees the new type
+ * with the old value. The writes are serialized on this object.
+ * </p>
+ */
 public class ZData implements Data {
 
     private final String key;
-    private Object value;
     private final long expiredAt;
+    private volatile Value value;
+    private transient volatile ZPlayerData owner;
 
     public ZData(String key, Object value, long expiredAt) {
+        this(key, null, value, expiredAt);
+    }
+
+    /**
+     * @param key       The key
+     * @param type      The type of the value, null to deduce it from the value
+     * @param value     The value
+     * @param expiredAt The expiration date, 0 for no expiration
+     */
+    public ZData(String key, DataType type, Object value, long expiredAt) {
         super();
         this.key = key;
-        this.value = value;
         this.expiredAt = expiredAt;
+        this.value = Value.of(type == null ? getType(value) : type, value);
+    }
+
+    /**
+     * Deduce the type of a value
+     *
+     * @param value The value
+     * @return the type
+     * @see DataType#of(Object)
+     */
+    public static DataType getType(Object value) {
+        return DataType.of(value);
     }
 
     @Override
@@ -22,7 +56,12 @@ public class ZData implements Data {
 
     @Override
     public Object getValue() {
-        return this.value;
+        return this.value.get();
+    }
+
+    @Override
+    public DataType getType() {
+        return this.value.type;
     }
 
     @Override
@@ -37,23 +76,103 @@ public class ZData implements Data {
 
     @Override
     public void add(int amount) {
-        int value = safeStringToInt(this.value.toString());
-        this.value = value + amount;
+        this.add((long) amount);
     }
 
     @Override
     public void remove(int amount) {
-        int value = safeStringToInt(this.value.toString());
-        this.value = value - amount;
+        this.add(-(long) amount);
+    }
+
+    /**
+     * Add an amount to a number, a string containing a number becomes a number
+     *
+     * @param amount The amount, negative to subtract
+     */
+    public synchronized void add(long amount) {
+        Value value = this.toNumber();
+        if (value.type == DataType.DOUBLE) this.value = new Value(DataType.DOUBLE, 0, value.doubleValue + amount, null);
+        else this.value = new Value(DataType.LONG, value.longValue + amount, 0, null);
+        this.notifyOwner();
+    }
 
+    /**
+     * Add an amount to a number, a LONG becomes a DOUBLE
+     *
+     * @param amount The amount, negative to subtract
+     */
+    public synchronized void add(double amount) {
+        Value value = this.toNumber();
+        double current = value.type == DataType.LONG ? value.longValue : value.doubleValue;
+        this.value = new Value(DataType.DOUBLE, 0, current + amount, null);
+        this.notifyOwner();
     }
 
-    private int safeStringToInt(String str) {
-        if (str.contains(".")) {
-            double doubleValue = Double.parseDouble(str);
-            return (int) doubleValue;
-        } else {
-            return Integer.parseInt(str);
+    /**
+     * @return the current value as a number, the value is not modified
+     */
+    private Value toNumber() {
+        Value value = this.value;
+        if (value.type == DataType.LONG || value.type == DataType.DOUBLE) return value;
+        // Throws a NumberFormatException if the value is not a number, like before, "5.0" stays a DOUBLE
+        String string = String.valueOf(value.object).trim();
+        try {
+            return Value.of(DataType.LONG, Long.parseLong(string));
+        } catch (NumberFormatException exception) {
+            return Value.of(DataType.DOUBLE, Double.parseDouble(string));
+        }
+    }
+
+    /**
+     * @param owner The player data which contains this data
+     */
+    public void setOwner(ZPlayerData owner) {
+        this.owner = owner;
+    }
+
+    private void notifyOwner() {
+        if (this.owner != null) this.owner.onDataChange(this);
+    }
+
+    /**
+     * A typed value, a number is stored as a primitive
+     */
+    private static final class Value {
+
+        private final DataType type;
+        private final long longValue;
+        private final double doubleValue;
+        private final Object object;
+
+        private Value(DataType type, long longValue, double doubleValue, Object object) {
+            this.type = type;
+            this.longValue = longValue;
+            this.doubleValue = doubleValue;
+            this.object = object;
+        }
+
+        private static Value of(DataType type, Object value) {
+            switch (type) {
+                case LONG:
+                    return new Value(type, value instanceof Number ? ((Number) value).longValue() : (long) Double.parseDouble(value.toString()), 0, null);
+                case DOUBLE:
+                    return new Value(type, 0, value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString()), null);
+                case BOOLEAN:
+                    return new Value(type, 0, 0, value instanceof Boolean ? value : Boolean.parseBoolean(String.valueOf(value)));
+                default:
+                    return new Value(type, 0, 0, value == null ? null : value.toString());
+            }
+        }
+
+        private Object get() {
+            switch (this.type) {
+                case LONG:
+                    return this.longValue;
+                case DOUBLE:
+                    return this.doubleValue;
+                default:
+                    return this.object;
+            }
         }
     }
 
@@ -0,0 +1,226 @@
+package fr.maxlego08.menu.players;
+
+import fr.maxlego08.menu.api.players.Data;
+import fr.maxlego08.menu.api.players.DataBatch;
+import fr.maxlego08.menu.api.players.DataType;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Changes collected by {@link ZDataManager#batch(java.util.function.Consumer)}, nothing is applied before
+ * {@link #apply(Map)}.
+ */
+public class ZDataBatch implements DataBatch {
+
+    private final ZDataManager manager;
+    private final List<Change> changes = new ArrayList<>();
+    private final Set<UUID> uniqueIds = new LinkedHashSet<>();
+
+    public ZDataBatch(ZDataManager manager) {
+        this.manager = manager;
+    }
+
+    private void addChange(Change change) {
+        this.changes.add(change);
+        this.uniqueIds.add(change.uniqueId);
+    }
+
+    @Override
+    public void addData(UUID uniqueId, Data data) {
+        this.addChange(new Change(Operation.SET, uniqueId, data.getKey(), data, null));
+    }
+
+    @Override
+    public void add(UUID uniqueId, String key, long amount) {
+        this.addChange(new Change(Operation.ADD, uniqueId, key, null, amount));
+    }
+
+    @Override
+    public void add(UUID uniqueId, String key, double amount) {
+        this.addChange(new Change(Operation.ADD, uniqueId, key, null, amount));
+    }
+
+    @Override
+    public void subtract(UUID uniqueId, String key, long amount) {
+        this.addChange(new Change(Operation.ADD, uniqueId, key, null, -amount));
+    }
+
+    @Override
+    public void subtract(UUID uniqueId, String key, double amount) {
+        this.addChange(new Change(Operation.ADD, uniqueId, key, null, -amount));
+    }
+
+    @Override
+    public void removeData(UUID uniqueId, String key) {
+        this.addChange(new Change(Operation.REMOVE, uniqueId, key, null, null));
+    }
+
+    @Override
+    public void clearPlayer(UUID uniqueId) {
+        this.addChange(new Change(Operation.CLEAR, uniqueId, null, null, null));
+    }
+
+    @Override
+    public int size() {
+        return this.changes.size();
+    }
+
+    /**
+     * @return the players modified by this batch
+     */
+    public Set<UUID> getUniqueIds() {
+        return this.uniqueIds;
+    }
+
+    /**
+     * Check that every change can be applied, an amount can only be added to a number. The changes are replayed on
+     * the types of the values, nothing is modified.
+     *
+     * @param players The loaded players
+     * @throws IllegalArgumentException if a change can't be applied
+     */
+    public void validate(Map<UUID, ZPlayerData> players) {
+
+        // Type of the values modified by the batch, null for a removed value
+        Map<Map.Entry<UUID, String>, DataType> types = new HashMap<>();
+        Set<UUID> clearedPlayers = new HashSet<>();
+
+        for (Change change : this.changes) {
+            switch (change.operation) {
+                case SET:
+                    types.put(new AbstractMap.SimpleImmutableEntry<>(change.uniqueId, change.key), change.data.getType());
+                    break;
+                case REMOVE:
+                    types.put(new AbstractMap.SimpleImmutableEntry<>(change.uniqueId, change.key), null);
+                    break;
+                case CLEAR:
+                    types.keySet().removeIf(entry -> entry.getKey().equals(change.uniqueId));
+                    clearedPlayers.add(change.uniqueId);
+                    break;
+                case ADD: {
+                    Map.Entry<UUID, String> entry = new AbstractMap.SimpleImmutableEntry<>(change.uniqueId, change.key);
+                    Optional<Data> optional = Optional.empty();
+                    if (!types.containsKey(entry) && !clearedPlayers.contains(change.uniqueId)) {
+                        ZPlayerData playerData = players.get(change.uniqueId);
+                        if (playerData != null) optional = playerData.getData(change.key);
+                    }
+
+                    boolean isNumber = types.containsKey(entry) ? isNumber(types.get(entry), null) : !optional.isPresent() || isNumber(optional.get().getType(), optional.get().getValue());
+                    if (!isNumber) {
+                        throw new IllegalArgumentException("The data " + change.key + " of " + change.uniqueId + " is not a number");
+                    }
+                    types.put(entry, change.amount instanceof Double ? DataType.DOUBLE : DataType.LONG);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param type  The type, null if the value is absent
+     * @param value The value, a string can contain a number
+     */
+    private static boolean isNumber(DataType type, Object value) {
+        if (type == null || type == DataType.LONG || type == DataType.DOUBLE) return true;
+        if (type != DataType.STRING || value == null) return false;
+        try {
+            Double.parseDouble(value.toString());
+            return true;
+        } catch (NumberFormatException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Apply the changes in the order they were added, all or nothing: the changes are validated first. The players
+     * are given by the manager, already loaded, so the changes never wait for the storage.
+     *
+     * @param players The loaded players, a player who is missing has no data yet
+     * @throws IllegalArgumentException if a change can't be applied, nothing is applied
+     */
+    public void apply(Map<UUID, ZPlayerData> players) {
+
+        this.validate(players);
+
+        for (Change change : this.changes) {
+
+            ZPlayerData playerData = players.get(change.uniqueId);
+            if (change.operation == Operation.CLEAR) {
+                this.manager.clear(change.uniqueId);
+                players.remove(change.uniqueId);
+                continue;
+            }
+
+            if (playerData == null) {
+                if (change.operation == Operation.REMOVE) continue;
+                playerData = this.manager.createPlayer(change.uniqueId);
+                players.put(change.uniqueId, playerData);
+            } else {
+                // A large batch can push its own players out of the offline cache
+                playerData = this.manager.attach(playerData);
+            }
+
+            switch (change.operation) {
+                case SET:
+                    playerData.addData(change.data);
+                    break;
+                case REMOVE:
+                    playerData.removeData(change.key);
+                    break;
+                case ADD:
+                    add(playerData, change.key, change.amount);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Add a number to a data, the data is created if the player doesn't have it
+     */
+    private static void add(ZPlayerData playerData, String key, Number amount) {
+        boolean isDouble = amount instanceof Double;
+        Optional<Data> optional = playerData.getData(key);
+        if (!optional.isPresent()) {
+            playerData.addData(new ZData(key, isDouble ? DataType.DOUBLE : DataType.LONG, amount, 0));
+            return;
+        }
+
+        Data data = optional.get();
+        if (data instanceof ZData && isDouble) ((ZData) data).add(amount.doubleValue());
+        else if (data instanceof ZData) ((ZData) data).add(amount.longValue());
+        else data.add(amount.intValue());
+    }
+
+    private enum Operation {
+        SET, ADD, REMOVE, CLEAR
+    }
+
+    private static class Change {
+
+        private final Operation operation;
+        private final UUID uniqueId;
+        private final String key;
+        private final Data data;
+        // A Long or a Double
+        private final Number amount;
+
+        private Change(Operation operation, UUID uniqueId, String key, Data data, Number amount) {
+            this.operation = operation;
+            this.uniqueId = uniqueId;
+            this.key = key;
+            this.data = data;
+            this.amount = amount;
+        }
+    }
+}
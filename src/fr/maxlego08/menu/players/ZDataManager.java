@@ -1,71 +1,399 @@
 package fr.maxlego08.menu.players;
 
 import fr.maxlego08.menu.MenuPlugin;
+import fr.maxlego08.menu.api.event.events.PlayerDataExpireEvent;
 import fr.maxlego08.menu.api.players.Data;
+import fr.maxlego08.menu.api.players.DataBatch;
 import fr.maxlego08.menu.api.players.DataManager;
 import fr.maxlego08.menu.api.players.PlayerData;
 import fr.maxlego08.menu.placeholder.LocalPlaceholder;
+import fr.maxlego08.menu.players.storage.DataStorage;
+import fr.maxlego08.menu.players.storage.JsonDataStorage;
+import fr.maxlego08.menu.players.storage.SqlDataStorage;
+import fr.maxlego08.menu.players.storage.StorageType;
 import fr.maxlego08.menu.save.Config;
 import fr.maxlego08.menu.zcore.enums.Message;
+import fr.maxlego08.menu.zcore.logger.Logger;
 import fr.maxlego08.menu.zcore.utils.builder.TimerBuilder;
 import fr.maxlego08.menu.zcore.utils.interfaces.ReturnConsumer;
 import fr.maxlego08.menu.zcore.utils.storage.Persist;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-public class ZDataManager implements DataManager {
+public class ZDataManager implements DataManager, Listener {
 
-    private static Map<UUID, ZPlayerData> players = new HashMap<>();
+    private static ConcurrentMap<UUID, ZPlayerData> players = new ConcurrentHashMap<>();
     private final transient MenuPlugin plugin;
-    private transient Map<String, String> defaultValues = new HashMap<>();
-    private transient long lastSave;
+    private transient Map<String, String> defaultValues = new ConcurrentHashMap<>();
+    private transient volatile long lastSave;
+    private transient DataStorage storage;
+    private final transient DataExpirations expirations = new DataExpirations(this);
+    private final transient Object batchLock = new Object();
+    // Lazy storage only, players not online which have been loaded recently
+    private transient PlayerDataCache offlinePlayers = new PlayerDataCache(1, this::hasUnwrittenChanges);
+    private final transient Map<UUID, CompletableFuture<ZPlayerData>> loadingPlayers = new ConcurrentHashMap<>();
+    // Lower case name to uuid, filled with the players who join and the players known by the server
+    private final transient Map<String, UUID> uniqueIds = new ConcurrentHashMap<>();
 
     public ZDataManager(MenuPlugin plugin) {
         super();
         this.plugin = plugin;
-        this.defaultValues = new HashMap<>();
+        this.defaultValues = new ConcurrentHashMap<>();
     }
 
     @Override
     public void save(Persist persist) {
-        persist.save(this, "players");
+        if (this.storage != null) {
+            this.storage.save();
+        }
     }
 
     @Override
     public void load(Persist persist) {
-        persist.loadOrSaveDefault(this, ZDataManager.class, "players");
+
+        // The savers are loaded again when HeadDatabase is ready, the open storage already has the last changes,
+        // a second storage would write the same files and reading them again would lose the queued changes
+        if (this.storage != null) return;
+
+        this.storage = this.createStorage(Config.storageType);
+        this.storage.load();
+        players.values().forEach(playerData -> playerData.setManager(this));
+        this.offlinePlayers = new PlayerDataCache(Config.playerDataOfflineCacheSize, this::hasUnwrittenChanges);
+        this.expirations.start(this.plugin);
+
+        // Players already online, after a reload of the server
+        if (this.storage.isLazy()) {
+            Bukkit.getOnlinePlayers().forEach(player -> this.loadPlayer(player.getUniqueId()));
+        }
+
+        Bukkit.getOnlinePlayers().forEach(player -> this.uniqueIds.put(player.getName().toLowerCase(), player.getUniqueId()));
+        this.plugin.getScheduler().runTaskAsynchronously(() -> {
+            for (OfflinePlayer offlinePlayer : Bukkit.getOfflinePlayers()) {
+                if (offlinePlayer.getName() != null) {
+                    this.uniqueIds.putIfAbsent(offlinePlayer.getName().toLowerCase(), offlinePlayer.getUniqueId());
+                }
+            }
+        });
+    }
+
+    private boolean hasUnwrittenChanges(UUID uniqueId) {
+        DataStorage storage = this.storage;
+        return storage != null && storage.hasUnwrittenChanges(uniqueId);
+    }
+
+    private DataStorage createStorage(StorageType storageType) {
+        if (storageType == null || storageType == StorageType.JSON) {
+            return new JsonDataStorage(this.plugin, this);
+        }
+        return new SqlDataStorage(this.plugin, this, storageType);
+    }
+
+    /**
+     * Write the last changes and close the storage
+     */
+    public void close() {
+        this.expirations.stop();
+        this.offlinePlayers.clear();
+        if (this.storage != null) {
+            this.storage.close();
+            this.storage = null;
+        }
+    }
+
+    /**
+     * Load a player from the storage, the data already in memory is kept
+     *
+     * @param uniqueId The player's uuid
+     */
+    public void loadPlayer(UUID uniqueId) {
+        this.storage.loadPlayer(uniqueId).whenComplete((loaded, throwable) -> {
+            if (throwable != null) {
+                Logger.info("Unable to load the data of " + uniqueId, Logger.LogType.ERROR);
+                throwable.printStackTrace();
+                return;
+            }
+            if (loaded == null) return;
+
+            // The player has left during the load
+            if (Bukkit.getPlayer(uniqueId) == null) {
+                this.cacheOfflinePlayer(loaded);
+                return;
+            }
+            this.addOnlinePlayer(loaded);
+        });
     }
 
+    private ZPlayerData addOnlinePlayer(ZPlayerData loaded) {
+        // Changes made while the player was loading are newer than the stored ones
+        ZPlayerData playerData = players.merge(loaded.getUniqueId(), loaded, (current, value) -> {
+            current.mergeAbsent(value);
+            return current;
+        });
+        playerData.setManager(this);
+        return playerData;
+    }
+
+    private ZPlayerData cacheOfflinePlayer(ZPlayerData loaded) {
+        ZPlayerData playerData = this.offlinePlayers.put(loaded);
+        playerData.setManager(this);
+        return playerData;
+    }
+
+    /**
+     * Load a player and wait for the storage, never called from the main thread
+     *
+     * @param uniqueId The player's uuid
+     * @return the player, with no data if the player is not in the storage
+     */
+    private ZPlayerData loadOfflinePlayer(UUID uniqueId) {
+        try {
+            return this.loadPlayerAsync(uniqueId).get(10, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException exception) {
+            Logger.info("Unable to load the data of " + uniqueId, Logger.LogType.ERROR);
+            exception.printStackTrace();
+        }
+        return this.cacheOfflinePlayer(new ZPlayerData(uniqueId));
+    }
+
+    /**
+     * Load a player from a lazy storage without waiting. The loads of the same player are shared, and the stored
+     * data is merged into the player already in memory without replacing its changes.
+     *
+     * @param uniqueId The player's uuid
+     * @return the future player, completed on the storage thread
+     */
+    private CompletableFuture<ZPlayerData> loadPlayerAsync(UUID uniqueId) {
+
+        CompletableFuture<ZPlayerData> future = this.loadingPlayers.get(uniqueId);
+        if (future != null) return future;
+
+        CompletableFuture<ZPlayerData> created = new CompletableFuture<>();
+        future = this.loadingPlayers.putIfAbsent(uniqueId, created);
+        if (future != null) return future;
+
+        this.storage.loadPlayer(uniqueId).whenComplete((loaded, throwable) -> {
+            this.loadingPlayers.remove(uniqueId, created);
+            if (throwable != null) {
+                Logger.info("Unable to load the data of " + uniqueId, Logger.LogType.ERROR);
+                throwable.printStackTrace();
+                // The changes made while loading are still written
+                ZPlayerData loading = this.getLoadedPlayer(uniqueId);
+                if (loading != null) loading.mergeAbsent(new ZPlayerData(uniqueId));
+                created.completeExceptionally(throwable);
+                return;
+            }
+
+            ZPlayerData playerData = loaded == null ? new ZPlayerData(uniqueId) : loaded;
+            boolean online = players.containsKey(uniqueId) || Bukkit.getPlayer(uniqueId) != null;
+            created.complete(online ? this.addOnlinePlayer(playerData) : this.cacheOfflinePlayer(playerData));
+        });
+        return created;
+    }
+
+    /**
+     * Get a player without blocking the calling thread. A player who is not in memory is loaded from a lazy storage,
+     * the future is then completed on the storage thread.
+     *
+     * @param uniqueId The player's uuid
+     * @return the future player, empty if the player has no data and the storage is not lazy
+     */
     @Override
-    public Optional<PlayerData> getPlayer(UUID uniqueId) {
-        return Optional.ofNullable(players.getOrDefault(uniqueId, null));
+    public CompletableFuture<Optional<PlayerData>> getPlayerAsync(UUID uniqueId) {
+        ZPlayerData playerData = this.getLoadedPlayer(uniqueId);
+        if ((playerData != null && !playerData.isLoading()) || this.storage == null || !this.storage.isLazy()) {
+            return CompletableFuture.completedFuture(Optional.ofNullable(playerData));
+        }
+        return this.loadPlayerAsync(uniqueId).thenApply(Optional::of);
+    }
+
+    /**
+     * The player if it is in memory, without loading it
+     *
+     * @param uniqueId The player's uuid
+     * @return the player, null if it is not loaded
+     */
+    public ZPlayerData getLoadedPlayer(UUID uniqueId) {
+        ZPlayerData playerData = players.get(uniqueId);
+        return playerData == null ? this.offlinePlayers.get(uniqueId) : playerData;
+    }
+
+    /**
+     * Used by the placeholders, a player who is not in memory is loaded in the background and the placeholder uses
+     * the default value until then
+     *
+     * @param uniqueId The player's uuid
+     * @return the player, null if it is not loaded yet
+     */
+    private ZPlayerData getPlayerWithoutWaiting(UUID uniqueId) {
+        ZPlayerData playerData = this.getLoadedPlayer(uniqueId);
+        if (playerData != null || this.storage == null || !this.storage.isLazy()) return playerData;
+
+        CompletableFuture<ZPlayerData> future = this.loadPlayerAsync(uniqueId);
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
     }
 
     @Override
-    public PlayerData getOrCreate(UUID uniqueId) {
+    public Optional<UUID> getUniqueId(String name) {
+        Player player = Bukkit.getPlayerExact(name);
+        if (player != null) return Optional.of(player.getUniqueId());
 
-        Optional<PlayerData> optional = this.getPlayer(uniqueId);
-        if (optional.isPresent()) {
-            return optional.get();
+        UUID uniqueId = this.uniqueIds.get(name.toLowerCase());
+        if (uniqueId != null) return Optional.of(uniqueId);
+
+        try {
+            return Optional.of(UUID.fromString(name));
+        } catch (IllegalArgumentException exception) {
+            return Optional.empty();
         }
+    }
 
-        ZPlayerData data = new ZPlayerData(uniqueId);
-        players.put(uniqueId, data);
+    /**
+     * The data is loaded before the player joins, the login thread waits for the storage
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
 
-        this.autoSave();
+        this.uniqueIds.put(event.getName().toLowerCase(), event.getUniqueId());
+        if (this.storage != null && this.storage.isLazy() && this.getLoadedPlayer(event.getUniqueId()) == null) {
+            this.loadOfflinePlayer(event.getUniqueId());
+        }
+    }
+
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        this.uniqueIds.put(player.getName().toLowerCase(), player.getUniqueId());
+        if (this.storage == null || !this.storage.isLazy()) return;
+
+        ZPlayerData playerData = this.offlinePlayers.remove(player.getUniqueId());
+        if (playerData != null) {
+            this.addOnlinePlayer(playerData);
+        } else if (!players.containsKey(player.getUniqueId())) {
+            this.loadPlayer(player.getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        // The changes are already sent to the storage, the player goes to the offline cache
+        if (this.storage != null && this.storage.isLazy()) {
+            ZPlayerData playerData = players.remove(event.getPlayer().getUniqueId());
+            if (playerData != null) this.cacheOfflinePlayer(playerData);
+        }
+    }
+
+    /**
+     * Remove an expired data, called by the {@link DataExpirations} sweeper
+     *
+     * @param uniqueId The player's uuid
+     * @param data     The data
+     */
+    public void expire(UUID uniqueId, Data data) {
+
+        ZPlayerData playerData = this.getLoadedPlayer(uniqueId);
+        if (playerData == null || !data.isExpired() || !playerData.removeIfSame(data)) return;
+
+        PlayerDataExpireEvent event = new PlayerDataExpireEvent(uniqueId, data);
+        if (Config.enableFastEvent) {
+            this.plugin.getInventoryManager().getFastEvents().forEach(fastEvent -> fastEvent.onPlayerDataExpire(event));
+        } else event.call();
+    }
 
-        return data;
+    public Map<UUID, ZPlayerData> getPlayers() {
+        return players;
+    }
+
+    public DataStorage getStorage() {
+        return storage;
+    }
+
+    public DataExpirations getExpirations() {
+        return expirations;
+    }
+
+    public PlayerDataCache getOfflinePlayers() {
+        return offlinePlayers;
+    }
+
+    public void replaySet(UUID uniqueId, Data data) {
+        players.computeIfAbsent(uniqueId, ZPlayerData::new).addData(data);
+    }
+
+    public void replayRemove(UUID uniqueId, String key) {
+        ZPlayerData playerData = players.get(uniqueId);
+        if (playerData != null) playerData.removeData(key);
+    }
+
+    public void replayClear(UUID uniqueId) {
+        players.remove(uniqueId);
+    }
+
+    public void replayClearAll() {
+        players.clear();
+    }
+
+    @Override
+    public Optional<PlayerData> getPlayer(UUID uniqueId) {
+        ZPlayerData playerData = this.getLoadedPlayer(uniqueId);
+        // A player who is not online is loaded from a lazy storage, only the other threads wait for the storage
+        if ((playerData == null || playerData.isLoading()) && this.storage != null && this.storage.isLazy() && !Bukkit.isPrimaryThread()) {
+            playerData = this.loadOfflinePlayer(uniqueId);
+        } else if (playerData == null && this.storage != null && this.storage.isLazy()) {
+            playerData = this.getPlayerWithoutWaiting(uniqueId);
+        }
+        return Optional.ofNullable(playerData);
+    }
+
+    @Override
+    public PlayerData getOrCreate(UUID uniqueId) {
+
+        if (this.storage != null && this.storage.isLazy()) {
+            ZPlayerData playerData = this.getLoadedPlayer(uniqueId);
+            if (!Bukkit.isPrimaryThread()) {
+                return playerData != null && !playerData.isLoading() ? playerData : this.loadOfflinePlayer(uniqueId);
+            }
+            if (playerData != null) return playerData;
+
+            // The main thread doesn't wait. The changes are kept in memory and written once the stored data is
+            // loaded, the keys they change are not replaced by the stored values.
+            playerData = ZPlayerData.loading(uniqueId);
+            playerData = Bukkit.getPlayer(uniqueId) != null ? this.addOnlinePlayer(playerData) : this.cacheOfflinePlayer(playerData);
+            if (playerData.isLoading()) this.loadPlayerAsync(uniqueId);
+            return playerData;
+        }
+
+        return players.computeIfAbsent(uniqueId, id -> {
+            ZPlayerData data = new ZPlayerData(id);
+            data.setManager(this);
+            return data;
+        });
     }
 
     @Override
@@ -74,6 +402,90 @@ public class ZDataManager implements DataManager {
         playerData.addData(data);
     }
 
+    /**
+     * Add a player without data, the player is not loaded from the storage
+     *
+     * @param uniqueId The player's uuid
+     * @return the player in memory
+     */
+    public ZPlayerData createPlayer(UUID uniqueId) {
+        if (this.storage == null || !this.storage.isLazy()) return (ZPlayerData) this.getOrCreate(uniqueId);
+        return this.attach(new ZPlayerData(uniqueId));
+    }
+
+    /**
+     * Make sure a loaded player is still in memory, a player removed from the offline cache is added back
+     *
+     * @param playerData The player
+     * @return the player in memory, its changes are sent to the storage
+     */
+    public ZPlayerData attach(ZPlayerData playerData) {
+        UUID uniqueId = playerData.getUniqueId();
+        if (this.getLoadedPlayer(uniqueId) == playerData) return playerData;
+        if (this.storage == null || !this.storage.isLazy()) return players.computeIfAbsent(uniqueId, id -> playerData);
+        return players.containsKey(uniqueId) || Bukkit.getPlayer(uniqueId) != null ? this.addOnlinePlayer(playerData) : this.cacheOfflinePlayer(playerData);
+    }
+
+    @Override
+    public CompletableFuture<Integer> batch(Consumer<DataBatch> consumer) {
+
+        ZDataBatch batch = new ZDataBatch(this);
+        consumer.accept(batch);
+        if (batch.size() == 0) return CompletableFuture.completedFuture(0);
+
+        // The players who are not in memory, or still loading, are loaded first, the batch is applied once they are
+        // all loaded so an amount is added to the stored value
+        Map<UUID, ZPlayerData> batchPlayers = new ConcurrentHashMap<>();
+        List<CompletableFuture<ZPlayerData>> loads = new ArrayList<>();
+        for (UUID uniqueId : batch.getUniqueIds()) {
+            ZPlayerData playerData = this.getLoadedPlayer(uniqueId);
+            if (playerData != null && (!playerData.isLoading() || this.storage == null || !this.storage.isLazy())) {
+                batchPlayers.put(uniqueId, playerData);
+            } else if (this.storage != null && this.storage.isLazy()) {
+                loads.add(this.loadPlayerAsync(uniqueId).whenComplete((loaded, throwable) -> {
+                    if (loaded != null) batchPlayers.put(uniqueId, loaded);
+                }));
+            }
+        }
+
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        if (loads.isEmpty()) {
+            this.applyBatch(batch, batchPlayers, future);
+        } else {
+            CompletableFuture.allOf(loads.toArray(new CompletableFuture[0])).whenComplete((ignored, throwable) -> {
+                if (throwable != null) {
+                    Logger.info("Unable to apply a player data batch, a player could not be loaded", Logger.LogType.ERROR);
+                    future.completeExceptionally(throwable);
+                    return;
+                }
+                this.applyBatch(batch, batchPlayers, future);
+            });
+        }
+        return future;
+    }
+
+    /**
+     * Apply the batch and complete the future with its size, or with the exception if nothing was applied
+     */
+    private void applyBatch(ZDataBatch batch, Map<UUID, ZPlayerData> batchPlayers, CompletableFuture<Integer> future) {
+        try {
+            this.applyBatch(batch, batchPlayers);
+            future.complete(batch.size());
+        } catch (RuntimeException exception) {
+            Logger.info("Unable to apply a player data batch, nothing was changed: " + exception.getMessage(), Logger.LogType.ERROR);
+            future.completeExceptionally(exception);
+        }
+    }
+
+    private void applyBatch(ZDataBatch batch, Map<UUID, ZPlayerData> batchPlayers) {
+        // Two batches are not mixed, and the changes of a batch reach the storage in one write
+        synchronized (this.batchLock) {
+            if (this.storage != null) this.storage.batch(() -> batch.apply(batchPlayers));
+            else batch.apply(batchPlayers);
+        }
+        this.autoSave();
+    }
+
     @Override
     public Optional<Data> getData(UUID uniqueId, String key) {
 
@@ -91,14 +503,17 @@ public class ZDataManager implements DataManager {
             return new ArrayList<>();
         }
         try {
-            String playerName = args[2];
-            OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(playerName);
-            Optional<PlayerData> optional = this.getPlayer(offlinePlayer.getUniqueId());
+            Optional<UUID> optional = this.getUniqueId(args[2]);
             if (!optional.isPresent()) {
                 return new ArrayList<>();
             }
 
-            PlayerData playerData = optional.get();
+            // The tab completion must not wait for the storage
+            PlayerData playerData = this.getPlayerWithoutWaiting(optional.get());
+            if (playerData == null) {
+                return new ArrayList<>();
+            }
+
             return playerData.getDatas().stream().map(Data::getKey).collect(Collectors.toList());
 
         } catch (Exception e) {
@@ -109,25 +524,34 @@ public class ZDataManager implements DataManager {
     @Override
     public void clearAll() {
         players.clear();
+        this.offlinePlayers.clear();
+        if (this.storage != null) this.storage.clearAll();
         this.save(this.plugin.getPersist());
     }
 
     @Override
     public void autoSave() {
-        if (System.currentTimeMillis() > this.lastSave) {
-            this.plugin.getScheduler().runTaskAsynchronously(() -> {
-                this.save(this.plugin.getPersist());
-                this.lastSave = System.currentTimeMillis() + (Config.secondsSavePlayerData * 1000L);
-            });
+        // The changes are already sent to the storage, the save is only requested periodically
+        if (System.currentTimeMillis() > this.lastSave && this.storage != null) {
+            this.lastSave = System.currentTimeMillis() + (Config.secondsSavePlayerData * 1000L);
+            this.storage.requestSave();
         }
     }
 
     @Override
     public void clearPlayer(UUID uniqueId) {
-        players.remove(uniqueId);
+        this.clear(uniqueId);
         this.autoSave();
     }
 
+    public void clear(UUID uniqueId) {
+        ZPlayerData playerData = players.remove(uniqueId);
+        if (playerData != null) playerData.setManager(null);
+        playerData = this.offlinePlayers.remove(uniqueId);
+        if (playerData != null) playerData.setManager(null);
+        if (this.storage != null) this.storage.clear(uniqueId);
+    }
+
     @Override
     public void loadDefaultValues() {
         File file = new File(plugin.getDataFolder(), "default_values.yml");
@@ -147,10 +571,9 @@ public class ZDataManager implements DataManager {
 
         localPlaceholder.register("player_key_exist_", (offlinePlayer, key) -> {
 
-            Optional<PlayerData> optional = this.getPlayer(offlinePlayer.getUniqueId());
-            if (!optional.isPresent()) return "false";
+            PlayerData playerData = this.getPlayerWithoutWaiting(offlinePlayer.getUniqueId());
+            if (playerData == null) return "false";
 
-            PlayerData playerData = optional.get();
             return String.valueOf(playerData.containsKey(key));
 
         });
@@ -169,20 +592,18 @@ public class ZDataManager implements DataManager {
         localPlaceholder.register("player_expire_", (offlinePlayer, key) -> handlePlaceholder(offlinePlayer, key, data -> String.valueOf(data.getExpiredAt())));
         localPlaceholder.register("player_is_expired_", (offlinePlayer, key) -> {
 
-            Optional<PlayerData> optional = this.getPlayer(offlinePlayer.getUniqueId());
-            if (!optional.isPresent()) return "true";
+            PlayerData playerData = this.getPlayerWithoutWaiting(offlinePlayer.getUniqueId());
+            if (playerData == null) return "true";
 
-            PlayerData playerData = optional.get();
             Optional<Data> optionalData = playerData.getData(key);
             return optionalData.map(data -> String.valueOf(data.isExpired())).orElse("true");
         });
     }
 
     private String handlePlaceholder(OfflinePlayer offlinePlayer, String key, ReturnConsumer<Data, String> consumer) {
-        Optional<PlayerData> optional = this.getPlayer(offlinePlayer.getUniqueId());
-        if (!optional.isPresent()) return getDefaultKey(key);
+        PlayerData playerData = this.getPlayerWithoutWaiting(offlinePlayer.getUniqueId());
+        if (playerData == null) return getDefaultKey(key);
 
-        PlayerData playerData = optional.get();
         Optional<Data> optionalData = playerData.getData(key);
         return optionalData.isPresent() ? consumer.accept(optionalData.get()) : getDefaultKey(key);
     }
@@ -3,12 +3,34 @@ package fr.maxlego08.menu.players;
 import fr.maxlego08.menu.api.players.Data;
 import fr.maxlego08.menu.api.players.PlayerData;
 
-import java.util.*;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Data of a player.
+ * <p>
+ * Reads are lock free and can be done from any thread. Writes of a player are serialized on this object, so the
+ * changes are written in the journal in the same order as they are applied.
+ * </p>
+ * <p>
+ * A player created before its stored data is loaded, see {@link #loading(UUID)}, keeps its changes in memory. When
+ * the stored data is loaded, the keys changed or removed meanwhile keep their new state, the other keys come from the
+ * storage, then the changes are sent to the storage.
+ * </p>
+ */
 public class ZPlayerData implements PlayerData {
 
     private final UUID uniqueId;
-    private final Map<String, Data> datas = new HashMap<>();
+    private final ConcurrentMap<String, Data> datas = new ConcurrentHashMap<>();
+    private transient volatile ZDataManager manager;
+    // Keys changed before the stored data was loaded, null once it is loaded, guarded by this
+    private transient Set<String> pendingKeys;
 
     /**
      * @param uniqueId
@@ -18,6 +40,26 @@ public class ZPlayerData implements PlayerData {
         this.uniqueId = uniqueId;
     }
 
+    /**
+     * Create a player whose stored data is not loaded yet, its changes are sent to the storage once the stored data
+     * is merged with {@link #mergeAbsent(ZPlayerData)}
+     *
+     * @param uniqueId The player's uuid
+     * @return the player
+     */
+    public static ZPlayerData loading(UUID uniqueId) {
+        ZPlayerData playerData = new ZPlayerData(uniqueId);
+        playerData.pendingKeys = new HashSet<>();
+        return playerData;
+    }
+
+    /**
+     * @return true if the stored data of this player is not loaded yet
+     */
+    public synchronized boolean isLoading() {
+        return this.pendingKeys != null;
+    }
+
     @Override
     public UUID getUniqueId() {
         return this.uniqueId;
@@ -29,8 +71,13 @@ public class ZPlayerData implements PlayerData {
     }
 
     @Override
-    public void addData(Data data) {
+    public synchronized void addData(Data data) {
         this.datas.put(data.getKey(), data);
+        if (data instanceof ZData) ((ZData) data).setOwner(this);
+        if (this.pendingKeys != null) this.pendingKeys.add(data.getKey());
+        ZDataManager manager = this.manager;
+        if (manager != null) manager.getExpirations().schedule(this.uniqueId, data);
+        this.onDataChange(data);
     }
 
     @Override
@@ -39,24 +86,111 @@ public class ZPlayerData implements PlayerData {
     }
 
     @Override
-    public void removeData(String key) {
-        this.datas.remove(key);
+    public synchronized void removeData(String key) {
+        if (this.pendingKeys != null) {
+            // The key can be in the storage even if it is not in memory
+            this.datas.remove(key);
+            this.pendingKeys.add(key);
+            return;
+        }
+        ZDataManager manager = this.manager;
+        if (this.datas.remove(key) != null && manager != null) {
+            manager.getStorage().remove(this.uniqueId, key);
+        }
+    }
+
+    /**
+     * Remove a data if it is still the current data of its key
+     *
+     * @param data The data
+     * @return true if the data has been removed
+     */
+    public synchronized boolean removeIfSame(Data data) {
+        if (!this.datas.remove(data.getKey(), data)) return false;
+        if (this.pendingKeys != null) {
+            this.pendingKeys.add(data.getKey());
+            return true;
+        }
+        ZDataManager manager = this.manager;
+        if (manager != null) manager.getStorage().remove(this.uniqueId, data.getKey());
+        return true;
     }
 
     @Override
     public boolean containsKey(String key) {
-        this.clearExpiredData();
-        return this.datas.containsKey(key);
+        Data data = this.datas.get(key);
+        return data != null && !data.isExpired();
     }
 
     @Override
     public Optional<Data> getData(String key) {
-        this.clearExpiredData();
-        return Optional.ofNullable(this.datas.getOrDefault(key, null));
+        // An expired data is removed by the sweeper, until then it is ignored
+        Data data = this.datas.get(key);
+        return data == null || data.isExpired() ? Optional.empty() : Optional.of(data);
     }
 
-    private void clearExpiredData() {
-        this.getDatas().stream().filter(Data::isExpired).forEach(this::removeData);
+    /**
+     * Attach this player to the manager, the changes are sent to its storage. Null to detach the player.
+     *
+     * @param manager The manager
+     */
+    public synchronized void setManager(ZDataManager manager) {
+        if (this.manager == manager) return;
+        this.manager = manager;
+        this.datas.values().forEach(data -> {
+            if (data instanceof ZData) ((ZData) data).setOwner(this);
+            if (manager != null) manager.getExpirations().schedule(this.uniqueId, data);
+        });
+    }
+
+    /**
+     * Called when a data of this player is added or modified
+     *
+     * @param data The data
+     */
+    public synchronized void onDataChange(Data data) {
+        ZDataManager manager = this.manager;
+        // A player who is loading sends its changes once the stored data is merged
+        if (manager != null && this.pendingKeys == null && this.datas.get(data.getKey()) == data) {
+            manager.getStorage().set(this.uniqueId, data);
+        }
+    }
+
+    /**
+     * Add the data of another player which is not already present, the changes are not sent to the storage. If this
+     * player is loading, the other player is its stored data: the keys changed or removed meanwhile are kept, then
+     * they are sent to the storage.
+     *
+     * @param playerData The other player
+     */
+    public synchronized void mergeAbsent(ZPlayerData playerData) {
+        ZDataManager manager = this.manager;
+        Set<String> pendingKeys = this.pendingKeys;
+        playerData.datas.forEach((key, data) -> {
+            if ((pendingKeys != null && pendingKeys.contains(key)) || this.datas.putIfAbsent(key, data) != null) return;
+            if (data instanceof ZData) ((ZData) data).setOwner(this);
+            if (manager != null) manager.getExpirations().schedule(this.uniqueId, data);
+        });
+
+        if (pendingKeys == null) return;
+        this.pendingKeys = null;
+        if (manager == null) return;
+        for (String key : pendingKeys) {
+            Data data = this.datas.get(key);
+            if (data != null) manager.getStorage().set(this.uniqueId, data);
+            else manager.getStorage().remove(this.uniqueId, key);
+        }
+    }
+
+    /**
+     * Copy the data of the player, used to save the player without blocking the writes
+     *
+     * @return a copy of this player
+     */
+    public ZPlayerData snapshot() {
+        ZPlayerData playerData = new ZPlayerData(this.uniqueId);
+        this.datas.values().forEach(data -> playerData.datas.put(data.getKey(), new ZData(data.getKey(), data.getType(), data.getValue(), data.getExpiredAt())));
+        return playerData;
     }
 
 }
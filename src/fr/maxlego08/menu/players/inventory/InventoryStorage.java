@@ -0,0 +1,182 @@
+package fr.maxlego08.menu.players.inventory;
+
+import fr.maxlego08.menu.MenuPlugin;
+import fr.maxlego08.menu.zcore.logger.Logger;
+import fr.maxlego08.menu.zcore.utils.Base64;
+import fr.maxlego08.menu.zcore.utils.storage.DiscUtils;
+import fr.maxlego08.menu.zcore.utils.storage.Persist;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stored inventories, one binary file per player in the <b>players-inventory</b> folder.
+ * <p>
+ * A file contains the magic number, the version and the number of items, then for each item its slot, the length of
+ * its bytes and the bytes. The bytes come from {@link fr.maxlego08.menu.zcore.utils.nms.ItemStackUtils#serializeItemStackBytes},
+ * they are already compressed. Only the file of the player who has changed is written.
+ * </p>
+ */
+public class InventoryStorage {
+
+    private static final int MAGIC = 0x5A4D4956;
+    private static final int VERSION = 1;
+    private static final String EXTENSION = ".dat";
+
+    private final File folder;
+
+    public InventoryStorage(MenuPlugin plugin) {
+        this.folder = new File(plugin.getDataFolder(), "players-inventory");
+    }
+
+    /**
+     * Read all the stored inventories
+     *
+     * @return the inventories by player
+     */
+    public synchronized Map<UUID, ZInventoryPlayer> loadAll() {
+
+        Map<UUID, ZInventoryPlayer> inventories = new HashMap<>();
+        File[] files = this.folder.listFiles((dir, name) -> name.endsWith(EXTENSION));
+        if (files == null) return inventories;
+
+        for (File file : files) {
+            UUID uniqueId = this.getUniqueId(file);
+            if (uniqueId == null) continue;
+            try {
+                inventories.put(uniqueId, this.read(file));
+            } catch (IOException exception) {
+                Logger.info("Unable to read the stored inventory " + file.getName(), Logger.LogType.ERROR);
+                exception.printStackTrace();
+            }
+        }
+
+        return inventories;
+    }
+
+    /**
+     * Write the file of a player, the file is deleted if the player has no stored inventory. The writes of the same
+     * player must be serialized by the caller, the files of different players can be written in parallel.
+     *
+     * @param uniqueId        The player's uuid
+     * @param inventoryPlayer The stored inventory, can be null
+     */
+    public void write(UUID uniqueId, ZInventoryPlayer inventoryPlayer) {
+
+        File file = new File(this.folder, uniqueId + EXTENSION);
+        if (inventoryPlayer == null) {
+            if (file.exists() && !file.delete()) {
+                Logger.info("Unable to delete the stored inventory " + file.getName(), Logger.LogType.ERROR);
+            }
+            return;
+        }
+
+        if (!this.folder.exists()) this.folder.mkdirs();
+
+        File tempFile = new File(this.folder, uniqueId + EXTENSION + ".tmp");
+        try {
+            try (FileOutputStream outputStream = new FileOutputStream(tempFile); DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(outputStream))) {
+                Map<Integer, byte[]> items = inventoryPlayer.getInventories();
+                dataOutputStream.writeInt(MAGIC);
+                dataOutputStream.writeByte(VERSION);
+                dataOutputStream.writeShort(items.size());
+                for (Map.Entry<Integer, byte[]> entry : items.entrySet()) {
+                    dataOutputStream.writeByte(entry.getKey());
+                    dataOutputStream.writeInt(entry.getValue().length);
+                    dataOutputStream.write(entry.getValue());
+                }
+                dataOutputStream.flush();
+                outputStream.getFD().sync();
+            }
+            DiscUtils.move(tempFile, file);
+        } catch (IOException exception) {
+            Logger.info("Unable to save the stored inventory " + file.getName(), Logger.LogType.ERROR);
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Convert players-inventory.json, where the items are Base64 strings, to the binary files. The json file is
+     * renamed to players-inventory.json.old once converted.
+     *
+     * @param persist The persist
+     * @return the number of inventories converted
+     */
+    public int migrate(Persist persist) {
+
+        File file = persist.getFile("players-inventory");
+        if (!file.exists()) return 0;
+
+        LegacyInventories legacy = persist.load(LegacyInventories.class, file);
+        if (legacy == null) {
+            Logger.info("Unable to convert " + file.getName() + ", the stored inventories are kept in this file", Logger.LogType.ERROR);
+            return 0;
+        }
+
+        int count = 0;
+        if (legacy.inventories != null) {
+            for (Map.Entry<UUID, LegacyInventory> entry : legacy.inventories.entrySet()) {
+                Map<Integer, byte[]> items = new HashMap<>();
+                if (entry.getValue().inventories != null) {
+                    entry.getValue().inventories.forEach((slot, encoded) -> {
+                        if (encoded != null && !encoded.equals("null")) items.put(slot, Base64.decode(encoded));
+                    });
+                }
+                this.write(entry.getKey(), new ZInventoryPlayer(items));
+                count++;
+            }
+        }
+
+        if (!file.renameTo(new File(file.getPath() + ".old"))) {
+            Logger.info("Unable to rename " + file.getName() + ", please delete it", Logger.LogType.WARNING);
+        }
+        return count;
+    }
+
+    private ZInventoryPlayer read(File file) throws IOException {
+        try (DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (dataInputStream.readInt() != MAGIC) throw new IOException("Invalid stored inventory file");
+            int version = dataInputStream.readUnsignedByte();
+            if (version != VERSION) throw new IOException("Unsupported stored inventory version " + version);
+
+            int size = dataInputStream.readUnsignedShort();
+            Map<Integer, byte[]> items = new HashMap<>(size * 2);
+            for (int index = 0; index < size; index++) {
+                int slot = dataInputStream.readUnsignedByte();
+                byte[] bytes = new byte[dataInputStream.readInt()];
+                dataInputStream.readFully(bytes);
+                items.put(slot, bytes);
+            }
+            return new ZInventoryPlayer(items);
+        }
+    }
+
+    private UUID getUniqueId(File file) {
+        String name = file.getName();
+        try {
+            return UUID.fromString(name.substring(0, name.length() - EXTENSION.length()));
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Format of players-inventory.json
+     */
+    private static class LegacyInventories {
+        private Map<UUID, LegacyInventory> inventories;
+    }
+
+    private static class LegacyInventory {
+        private Map<Integer, String> inventories;
+    }
+}
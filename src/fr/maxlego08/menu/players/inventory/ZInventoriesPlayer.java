@@ -3,37 +3,141 @@ package fr.maxlego08.menu.players.inventory;
 import fr.maxlego08.menu.MenuPlugin;
 import fr.maxlego08.menu.api.players.inventory.InventoriesPlayer;
 import fr.maxlego08.menu.api.players.inventory.InventoryPlayer;
+import fr.maxlego08.menu.api.scheduler.ZScheduler;
 import fr.maxlego08.menu.save.Config;
+import fr.maxlego08.menu.scheduler.BukkitScheduler;
+import fr.maxlego08.menu.scheduler.FoliaScheduler;
 import fr.maxlego08.menu.zcore.logger.Logger;
 import fr.maxlego08.menu.zcore.utils.storage.Persist;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ZInventoriesPlayer implements InventoriesPlayer {
 
-    private static Map<UUID, ZInventoryPlayer> inventories = new HashMap<>();
-    private transient final MenuPlugin plugin;
-    private transient long lastSave;
+    // The writes of a player are serialized on one of these locks, the players of different locks are written in parallel
+    private static final int WRITE_LOCKS = 64;
+
+    private final Map<UUID, ZInventoryPlayer> inventories = new ConcurrentHashMap<>();
+    // Players whose file has to be written, a store followed by a give before the flush is written once
+    private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private final MenuPlugin plugin;
+    private final InventoryStorage storage;
+    private final Object[] writeLocks = new Object[WRITE_LOCKS];
+    private ZScheduler timer;
+    private volatile long lastFlushTime;
+    private volatile int lastFlushCount;
 
     public ZInventoriesPlayer(MenuPlugin plugin) {
         this.plugin = plugin;
+        this.storage = new InventoryStorage(plugin);
+        for (int index = 0; index < WRITE_LOCKS; index++) {
+            this.writeLocks[index] = new Object();
+        }
+    }
+
+    /**
+     * Mark the file of a player to be written by the next flush
+     *
+     * @param uniqueId The player's uuid
+     */
+    public void autoSave(UUID uniqueId) {
+        this.dirtyPlayers.add(uniqueId);
+    }
+
+    private void startFlushTask() {
+        if (this.timer != null) return;
+        this.timer = MenuPlugin.isFolia() ? new FoliaScheduler(this.plugin) : new BukkitScheduler(this.plugin);
+        long period = Math.max(1, Config.playerInventoryFlushTicks);
+        this.timer.runTaskTimerAsynchronously(period, period, () -> {
+            // A flush which takes longer than the period is not run twice
+            if (!this.flushing.compareAndSet(false, true)) return;
+            try {
+                this.flush();
+            } finally {
+                this.flushing.set(false);
+            }
+        });
     }
 
-    public void autoSave() {
-        if (System.currentTimeMillis() > this.lastSave) {
-            Bukkit.getScheduler().runTaskAsynchronously(this.plugin, () -> {
-                this.save(this.plugin.getPersist());
-                this.lastSave = System.currentTimeMillis() + (Config.secondsSavePlayerInventories * 1000L);
-            });
+    /**
+     * Stop the flush task, the changes are then written on save
+     */
+    private void stopFlushTask() {
+        if (this.timer == null) return;
+        this.timer.cancel();
+        this.timer = null;
+    }
+
+    /**
+     * Write the files of the players which have changed since the last flush
+     */
+    public void flush() {
+
+        if (this.dirtyPlayers.isEmpty()) return;
+
+        long start = System.nanoTime();
+        int count = 0;
+        Iterator<UUID> iterator = this.dirtyPlayers.iterator();
+        while (iterator.hasNext()) {
+            UUID uniqueId = iterator.next();
+            // Removed before the read, a change made during the write marks the player again
+            iterator.remove();
+            this.write(uniqueId);
+            count++;
         }
+
+        this.lastFlushCount = count;
+        this.lastFlushTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Write the file of a player with their stored inventory at the time of the write. The inventory is read under the
+     * lock of the player, so two writes of the same player, from the flush task and from a save, can't be reordered
+     * and the file always ends with the last inventory.
+     *
+     * @param uniqueId The player's uuid
+     */
+    private void write(UUID uniqueId) {
+        synchronized (this.writeLocks[Math.floorMod(uniqueId.hashCode(), WRITE_LOCKS)]) {
+            this.storage.write(uniqueId, this.inventories.get(uniqueId));
+        }
+    }
+
+    /**
+     * @return the number of players whose file is waiting to be written
+     */
+    public int getQueueSize() {
+        return this.dirtyPlayers.size();
+    }
+
+    /**
+     * @return the duration of the last flush, in milliseconds
+     */
+    public long getLastFlushTime() {
+        return this.lastFlushTime;
+    }
+
+    /**
+     * @return the number of files written by the last flush
+     */
+    public int getLastFlushCount() {
+        return this.lastFlushCount;
+    }
+
+    public int size() {
+        return this.inventories.size();
     }
 
     @Override
@@ -48,9 +152,7 @@ public class ZInventoriesPlayer implements InventoriesPlayer {
         inventoryPlayer.storeInventory(player);
         inventories.put(player.getUniqueId(), inventoryPlayer);
 
-        if (Config.autoSaveFileInventoryOnUpdate) {
-            autoSave();
-        }
+        autoSave(player.getUniqueId());
     }
 
     @Override
@@ -61,9 +163,7 @@ public class ZInventoriesPlayer implements InventoriesPlayer {
             inventoryPlayer.giveInventory(player);
             inventories.remove(player.getUniqueId());
 
-            if (Config.autoSaveFileInventoryOnUpdate) {
-                autoSave();
-            }
+            autoSave(player.getUniqueId());
         }
     }
 
@@ -79,12 +179,28 @@ public class ZInventoriesPlayer implements InventoriesPlayer {
 
     @Override
     public void save(Persist persist) {
-        persist.save(this, "players-inventory");
+        // Called on disable, the pending changes are written without waiting for the task
+        this.stopFlushTask();
+        this.flush();
     }
 
     @Override
     public void load(Persist persist) {
-        persist.loadOrSaveDefault(this, ZInventoriesPlayer.class, "players-inventory");
+        // The changes not yet written would be lost by the reload
+        this.flush();
+
+        int migrated = this.storage.migrate(persist);
+        if (migrated > 0) {
+            Logger.info(migrated + " stored inventories converted to the binary format.", Logger.LogType.SUCCESS);
+        }
+        this.inventories.clear();
+        this.inventories.putAll(this.storage.loadAll());
+        // The task follows the configuration after a reload
+        if (Config.autoSaveFileInventoryOnUpdate) {
+            this.startFlushTask();
+        } else {
+            this.stopFlushTask();
+        }
     }
 
     @EventHandler
@@ -12,7 +12,16 @@ import java.util.Map;
 
 public class ZInventoryPlayer implements InventoryPlayer {
 
-    private final Map<Integer, String> inventories = new HashMap<>();
+    // The serialized items by slot, the bytes are written as is in the player's file
+    private final Map<Integer, byte[]> inventories;
+
+    public ZInventoryPlayer() {
+        this(new HashMap<>());
+    }
+
+    public ZInventoryPlayer(Map<Integer, byte[]> inventories) {
+        this.inventories = inventories;
+    }
 
     @Override
     public void storeInventory(Player player) {
@@ -29,7 +38,10 @@ public class ZInventoryPlayer implements InventoryPlayer {
     private void clear(int slot, PlayerInventory playerInventory, ItemStack[] content) {
         ItemStack itemStack = content[slot];
         if (itemStack != null) {
-            inventories.put(slot, ItemStackUtils.serializeItemStack(itemStack));
+            byte[] bytes = ItemStackUtils.serializeItemStackBytes(itemStack);
+            // An item which cannot be serialized stays in the inventory instead of being lost
+            if (bytes == null) return;
+            inventories.put(slot, bytes);
         }
         playerInventory.clear(slot);
     }
@@ -37,6 +49,10 @@ public class ZInventoryPlayer implements InventoryPlayer {
     @Override
     public void giveInventory(Player player) {
         PlayerInventory playerInventory = player.getInventory();
-        inventories.forEach((slot, encodedItemStack) -> playerInventory.setItem(slot, ItemStackUtils.deserializeItemStack(encodedItemStack)));
+        inventories.forEach((slot, bytes) -> playerInventory.setItem(slot, ItemStackUtils.deserializeItemStack(bytes)));
+    }
+
+    public Map<Integer, byte[]> getInventories() {
+        return inventories;
     }
 }
@@ -0,0 +1,364 @@
+package fr.maxlego08.menu.players.storage;
+
+import fr.maxlego08.menu.api.players.Data;
+import fr.maxlego08.menu.api.players.DataType;
+import fr.maxlego08.menu.players.ZDataManager;
+import fr.maxlego08.menu.players.ZPlayerData;
+import fr.maxlego08.menu.zcore.logger.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Storage with a background thread.
+ * <p>
+ * The changes are queued and the thread writes all the changes waiting in the queue in one batch. Loads and saves go
+ * through the same queue, so they always see the changes made before them.
+ * </p>
+ * <p>
+ * When a write fails, the changes are kept in front of the next changes and written again after a delay which
+ * doubles up to {@link #MAX_RETRY_DELAY}. The players with changes which are not written yet must stay in memory,
+ * see {@link #hasUnwrittenChanges(UUID)}.
+ * </p>
+ */
+public abstract class AsyncDataStorage implements DataStorage {
+
+    private static final Object STOP = new Object();
+    private static final long MIN_RETRY_DELAY = TimeUnit.SECONDS.toMillis(1);
+    private static final long MAX_RETRY_DELAY = TimeUnit.MINUTES.toMillis(1);
+
+    protected final ZDataManager manager;
+    private final String threadName;
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    // Changes of the batch in progress on the current thread
+    private final ThreadLocal<List<Entry>> batchEntries = new ThreadLocal<>();
+    // Number of changes queued and not written yet, by player
+    private final Map<UUID, Integer> unwrittenChanges = new ConcurrentHashMap<>();
+    private volatile Thread thread;
+
+    public AsyncDataStorage(ZDataManager manager, String threadName) {
+        this.manager = manager;
+        this.threadName = threadName;
+    }
+
+    /**
+     * Write a batch of changes, in the order they were made
+     *
+     * @param entries The changes
+     */
+    protected abstract void write(List<Entry> entries) throws Exception;
+
+    /**
+     * Called after each batch
+     *
+     * @param force true if a save was requested or if the storage is closing
+     */
+    protected abstract void flush(boolean force) throws Exception;
+
+    /**
+     * Read a player from the storage
+     *
+     * @param uniqueId The player's uuid
+     * @return the player, null if there is no data
+     */
+    protected abstract ZPlayerData read(UUID uniqueId) throws Exception;
+
+    /**
+     * Called by the thread when it stops
+     */
+    protected void onClose() {
+    }
+
+    protected void start() {
+        if (this.thread != null) return;
+        Thread thread = new Thread(this::run, this.threadName);
+        thread.setDaemon(true);
+        this.thread = thread;
+        thread.start();
+    }
+
+    public boolean isRunning() {
+        return this.thread != null;
+    }
+
+    @Override
+    public void close() {
+        Thread thread = this.thread;
+        if (thread == null) return;
+        this.queue.add(STOP);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        this.thread = null;
+    }
+
+    @Override
+    public CompletableFuture<ZPlayerData> loadPlayer(UUID uniqueId) {
+        Load load = new Load(uniqueId);
+        this.queue.add(load);
+        return load.future;
+    }
+
+    @Override
+    public void set(UUID uniqueId, Data data) {
+        this.enqueue(new Entry(Operation.SET, uniqueId, data.getKey(), data.getType(), data.getValue(), data.getExpiredAt()));
+    }
+
+    @Override
+    public void remove(UUID uniqueId, String key) {
+        this.enqueue(new Entry(Operation.REMOVE, uniqueId, key, null, null, 0));
+    }
+
+    @Override
+    public void clear(UUID uniqueId) {
+        this.enqueue(new Entry(Operation.CLEAR, uniqueId, null, null, null, 0));
+    }
+
+    @Override
+    public void clearAll() {
+        this.enqueue(new Entry(Operation.CLEAR_ALL, null, null, null, null, 0));
+    }
+
+    @Override
+    public void batch(Runnable runnable) {
+
+        // A batch inside a batch is part of the outer batch
+        if (this.batchEntries.get() != null) {
+            runnable.run();
+            return;
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        this.batchEntries.set(entries);
+        try {
+            runnable.run();
+        } finally {
+            this.batchEntries.remove();
+        }
+
+        // Only a batch which has been fully applied is written
+        if (entries.isEmpty()) return;
+        entries.forEach(this::track);
+        this.queue.add(new Batch(entries));
+    }
+
+    private void enqueue(Entry entry) {
+        List<Entry> entries = this.batchEntries.get();
+        if (entries != null) {
+            entries.add(entry);
+        } else {
+            this.track(entry);
+            this.queue.add(entry);
+        }
+    }
+
+    private void track(Entry entry) {
+        if (entry.uniqueId != null) this.unwrittenChanges.merge(entry.uniqueId, 1, Integer::sum);
+    }
+
+    private void untrack(Entry entry) {
+        if (entry.uniqueId != null) this.unwrittenChanges.computeIfPresent(entry.uniqueId, (uniqueId, count) -> count > 1 ? count - 1 : null);
+    }
+
+    @Override
+    public boolean hasUnwrittenChanges(UUID uniqueId) {
+        return this.unwrittenChanges.containsKey(uniqueId);
+    }
+
+    @Override
+    public void requestSave() {
+        this.queue.add(new Save());
+    }
+
+    @Override
+    public void save() {
+        if (!this.isRunning()) return;
+        Save save = new Save();
+        this.queue.add(save);
+        try {
+            save.latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+
+        List<Object> batch = new ArrayList<>();
+        // The changes which failed stay in front of the list until they are written
+        List<Entry> entries = new ArrayList<>();
+        List<Save> saves = new ArrayList<>();
+        boolean running = true;
+        long retryDelay = 0;
+
+        while (running) {
+
+            try {
+                if (entries.isEmpty()) {
+                    batch.add(this.queue.take());
+                } else {
+                    // Wait before writing the failed changes again, unless something else is queued
+                    Object object = this.queue.poll(retryDelay, TimeUnit.MILLISECONDS);
+                    if (object != null) batch.add(object);
+                }
+            } catch (InterruptedException exception) {
+                break;
+            }
+            this.queue.drainTo(batch);
+
+            boolean written = true;
+            try {
+                for (Object object : batch) {
+                    if (object instanceof Entry) {
+                        entries.add((Entry) object);
+                        continue;
+                    }
+                    if (object instanceof Batch) {
+                        entries.addAll(((Batch) object).entries);
+                        continue;
+                    }
+
+                    // The changes made before a load or a save are written first
+                    written = this.writeEntries(entries) && written;
+                    if (object == STOP) {
+                        running = false;
+                    } else if (object instanceof Save) {
+                        saves.add((Save) object);
+                    } else if (object instanceof Load) {
+                        Load load = (Load) object;
+                        try {
+                            load.future.complete(this.read(load.uniqueId));
+                        } catch (Exception exception) {
+                            load.future.completeExceptionally(exception);
+                        }
+                    }
+                }
+
+                written = this.writeEntries(entries) && written;
+                this.flush(!running || !saves.isEmpty());
+            } catch (Exception exception) {
+                Logger.info("Unable to save the player data", Logger.LogType.ERROR);
+                exception.printStackTrace();
+            }
+
+            // A save doesn't wait for a database which is down
+            saves.forEach(save -> save.latch.countDown());
+            saves.clear();
+            batch.clear();
+
+            if (written) {
+                retryDelay = 0;
+            } else {
+                retryDelay = Math.min(MAX_RETRY_DELAY, Math.max(MIN_RETRY_DELAY, retryDelay * 2));
+                Logger.info(entries.size() + " player data changes will be written again in " + retryDelay + "ms", Logger.LogType.WARNING);
+            }
+        }
+
+        if (!entries.isEmpty()) {
+            Logger.info("Unable to write " + entries.size() + " player data changes before closing the storage", Logger.LogType.ERROR);
+        }
+        this.onClose();
+    }
+
+    /**
+     * Write the changes, they are removed from the list only once they are written
+     *
+     * @return false if the write failed
+     */
+    private boolean writeEntries(List<Entry> entries) {
+        if (entries.isEmpty()) return true;
+        try {
+            this.write(entries);
+        } catch (Exception exception) {
+            Logger.info("Unable to write " + entries.size() + " player data changes", Logger.LogType.ERROR);
+            exception.printStackTrace();
+            return false;
+        }
+        entries.forEach(this::untrack);
+        entries.clear();
+        return true;
+    }
+
+    protected enum Operation {
+        SET, REMOVE, CLEAR, CLEAR_ALL
+    }
+
+    private static class Batch {
+
+        private final List<Entry> entries;
+
+        private Batch(List<Entry> entries) {
+            this.entries = entries;
+        }
+    }
+
+    private static class Save {
+        private final CountDownLatch latch = new CountDownLatch(1);
+    }
+
+    private static class Load {
+
+        private final UUID uniqueId;
+        private final CompletableFuture<ZPlayerData> future = new CompletableFuture<>();
+
+        private Load(UUID uniqueId) {
+            this.uniqueId = uniqueId;
+        }
+    }
+
+    /**
+     * A change of the player data
+     */
+    protected static class Entry {
+
+        private final Operation operation;
+        private final UUID uniqueId;
+        private final String key;
+        private final DataType type;
+        private final Object value;
+        private final long expiredAt;
+
+        protected Entry(Operation operation, UUID uniqueId, String key, DataType type, Object value, long expiredAt) {
+            this.operation = operation;
+            this.uniqueId = uniqueId;
+            this.key = key;
+            this.type = type;
+            this.value = value;
+            this.expiredAt = expiredAt;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public UUID getUniqueId() {
+            return uniqueId;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public DataType getType() {
+            return type;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public long getExpiredAt() {
+            return expiredAt;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package fr.maxlego08.menu.players.storage;
+
+import fr.maxlego08.menu.api.players.Data;
+import fr.maxlego08.menu.players.ZPlayerData;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Where the player data is stored.
+ * <p>
+ * The changes are given one by one by {@link fr.maxlego08.menu.players.ZDataManager}, an implementation must not
+ * block the caller, the changes are written later in batches.
+ * </p>
+ */
+public interface DataStorage {
+
+    /**
+     * Open the storage. A storage which is not lazy loads all the players in the manager.
+     */
+    void load();
+
+    /**
+     * Write the pending changes and close the storage.
+     */
+    void close();
+
+    /**
+     * A lazy storage only keeps the online players in memory, they are loaded when they join and unloaded when
+     * they quit.
+     *
+     * @return true if the storage is lazy
+     */
+    boolean isLazy();
+
+    /**
+     * Load a player, the changes given before this call are written first.
+     *
+     * @param uniqueId The player's uuid
+     * @return the future player data, completed with null if the player has no data
+     */
+    CompletableFuture<ZPlayerData> loadPlayer(UUID uniqueId);
+
+    void set(UUID uniqueId, Data data);
+
+    void remove(UUID uniqueId, String key);
+
+    void clear(UUID uniqueId);
+
+    void clearAll();
+
+    /**
+     * Run a group of changes, the changes given by the runnable are written together in the same write.
+     *
+     * @param runnable The changes
+     */
+    void batch(Runnable runnable);
+
+    /**
+     * A player with changes which are not written yet must stay in memory, a load would read the old data.
+     *
+     * @param uniqueId The player's uuid
+     * @return true if some changes of the player are not written yet
+     */
+    boolean hasUnwrittenChanges(UUID uniqueId);
+
+    /**
+     * Ask to save the data without waiting.
+     */
+    void requestSave();
+
+    /**
+     * Write the pending changes and wait until it's done.
+     */
+    void save();
+
+}
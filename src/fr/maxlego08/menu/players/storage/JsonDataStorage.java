@@ -0,0 +1,278 @@
+package fr.maxlego08.menu.players.storage;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+import fr.maxlego08.menu.MenuPlugin;
+import fr.maxlego08.menu.api.players.DataType;
+import fr.maxlego08.menu.players.ZData;
+import fr.maxlego08.menu.players.ZDataManager;
+import fr.maxlego08.menu.players.ZPlayerData;
+import fr.maxlego08.menu.save.Config;
+import fr.maxlego08.menu.zcore.logger.Logger;
+import fr.maxlego08.menu.zcore.utils.storage.Persist;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * players.json with an append only journal.
+ * <p>
+ * Each change is written as one JSON line in <b>players.journal</b>, the changes of a batch are synced to the disk
+ * once. <b>players.json</b> is the snapshot, on startup the journal is replayed over it. When the journal has more
+ * than {@link Config#playerDataJournalMaxEntries} entries, or when a save is requested, the snapshot is rewritten
+ * and the journal is truncated. If players.json exists but can't be read, it is never rewritten and the journal is
+ * kept.
+ * </p>
+ * <p>
+ * An ADD or a SUBTRACT is written as a SET of its result, replaying an entry is idempotent so an entry which is both
+ * in the snapshot and in the journal is harmless.
+ * </p>
+ */
+public class JsonDataStorage extends AsyncDataStorage {
+
+    private final MenuPlugin plugin;
+    private final File file;
+    private FileOutputStream outputStream;
+    private Writer writer;
+    private int entries;
+    private volatile boolean snapshotUnreadable;
+
+    public JsonDataStorage(MenuPlugin plugin, ZDataManager manager) {
+        this(plugin, manager, plugin.getDataFolder());
+    }
+
+    /**
+     * @param plugin  The plugin
+     * @param manager The manager
+     * @param folder  The folder of players.journal
+     */
+    public JsonDataStorage(MenuPlugin plugin, ZDataManager manager, File folder) {
+        super(manager, "zMenu Data Journal");
+        this.plugin = plugin;
+        this.file = new File(folder, "players.journal");
+    }
+
+    @Override
+    public void load() {
+
+        Persist persist = this.plugin.getPersist();
+        try {
+            persist.loadOrSaveDefaultOrThrow(this.manager, ZDataManager.class, persist.getFile("players"));
+        } catch (IOException exception) {
+            // The snapshot is still on the disk, writing the players loaded without it would erase it
+            this.snapshotUnreadable = true;
+            Logger.info("players.json can't be read, it will not be saved until the next restart. The changes are kept in players.journal", Logger.LogType.ERROR);
+        }
+
+        // The changes made since the last snapshot
+        int replayed = this.replay();
+        this.start();
+
+        if (replayed > 0) {
+            this.requestSave();
+        }
+    }
+
+    @Override
+    public boolean isLazy() {
+        return false;
+    }
+
+    @Override
+    public CompletableFuture<ZPlayerData> loadPlayer(UUID uniqueId) {
+        // All the players are already in memory
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void save() {
+        if (this.isRunning()) {
+            super.save();
+        } else {
+            this.saveSnapshot();
+        }
+    }
+
+    @Override
+    protected ZPlayerData read(UUID uniqueId) {
+        return null;
+    }
+
+    /**
+     * Apply the journal entries written after the last snapshot
+     *
+     * @return the number of entries replayed
+     */
+    private int replay() {
+
+        if (!this.file.exists()) return 0;
+
+        int count = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(this.file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                try {
+                    this.apply(new JsonParser().parse(line).getAsJsonObject());
+                    count++;
+                } catch (Exception exception) {
+                    // The last line can be incomplete if the server has crashed during the write
+                    Logger.info("Ignoring invalid player data journal entry: " + line, Logger.LogType.WARNING);
+                }
+            }
+        } catch (IOException exception) {
+            exception.printStackTrace();
+        }
+
+        this.entries = count;
+        return count;
+    }
+
+    private void apply(JsonObject object) {
+
+        Operation operation = Operation.valueOf(object.get("op").getAsString());
+        UUID uniqueId = object.has("uuid") ? UUID.fromString(object.get("uuid").getAsString()) : null;
+
+        switch (operation) {
+            case SET: {
+                JsonElement element = object.get("value");
+                DataType type = object.has("type") ? DataType.valueOf(object.get("type").getAsString()) : null;
+                Object value = null;
+                if (element != null && element.isJsonPrimitive()) {
+                    JsonPrimitive primitive = element.getAsJsonPrimitive();
+                    if (primitive.isBoolean()) value = primitive.getAsBoolean();
+                    else if (primitive.isNumber() && type == DataType.LONG) value = primitive.getAsLong();
+                    else if (primitive.isNumber() && type == DataType.DOUBLE) value = primitive.getAsDouble();
+                    else if (primitive.isNumber()) value = primitive.getAsNumber();
+                    else value = primitive.getAsString();
+                }
+                this.manager.replaySet(uniqueId, new ZData(object.get("key").getAsString(), type, value, object.get("expiredAt").getAsLong()));
+                break;
+            }
+            case REMOVE:
+                this.manager.replayRemove(uniqueId, object.get("key").getAsString());
+                break;
+            case CLEAR:
+                this.manager.replayClear(uniqueId);
+                break;
+            case CLEAR_ALL:
+                this.manager.replayClearAll();
+                break;
+        }
+    }
+
+    @Override
+    protected void write(List<Entry> entries) throws IOException {
+
+        if (this.writer == null) {
+            this.outputStream = new FileOutputStream(this.file, true);
+            this.writer = new OutputStreamWriter(this.outputStream, StandardCharsets.UTF_8);
+        }
+
+        for (Entry entry : entries) {
+            StringWriter line = new StringWriter();
+            JsonWriter jsonWriter = new JsonWriter(line);
+            jsonWriter.beginObject();
+            jsonWriter.name("op").value(entry.getOperation().name());
+            if (entry.getUniqueId() != null) jsonWriter.name("uuid").value(entry.getUniqueId().toString());
+            if (entry.getKey() != null) jsonWriter.name("key").value(entry.getKey());
+            if (entry.getOperation() == Operation.SET) {
+                Object value = entry.getValue();
+                if (entry.getType() != null) jsonWriter.name("type").value(entry.getType().name());
+                jsonWriter.name("value");
+                if (value == null) jsonWriter.nullValue();
+                else if (value instanceof Long) jsonWriter.value((long) (Long) value);
+                else if (value instanceof Double) jsonWriter.value((double) (Double) value);
+                else if (value instanceof Number) jsonWriter.value((Number) value);
+                else if (value instanceof Boolean) jsonWriter.value((Boolean) value);
+                else jsonWriter.value(value.toString());
+                jsonWriter.name("expiredAt").value(entry.getExpiredAt());
+            }
+            jsonWriter.endObject();
+            jsonWriter.close();
+
+            this.writer.write(line.toString());
+            this.writer.write('\n');
+            this.entries++;
+        }
+
+        // One sync for the whole batch
+        this.writer.flush();
+        this.outputStream.getFD().sync();
+    }
+
+    /**
+     * Rewrite the snapshot then truncate the journal. If the server stops between the two, the journal is replayed
+     * over the new snapshot, which gives the same result.
+     */
+    @Override
+    protected void flush(boolean force) throws IOException {
+        if (this.entries == 0 || (!force && this.entries < Config.playerDataJournalMaxEntries)) return;
+        if (!this.saveSnapshot()) return;
+
+        this.closeWriter();
+        new FileOutputStream(this.file, false).close();
+        this.entries = 0;
+    }
+
+    @Override
+    protected void onClose() {
+        this.closeWriter();
+    }
+
+    /**
+     * Write the whole players.json, the file is written next to the current one then renamed
+     *
+     * @return true if the snapshot is saved
+     */
+    private boolean saveSnapshot() {
+
+        // The journal is kept until the snapshot can be read
+        if (this.snapshotUnreadable) return false;
+
+        // Each player is copied, the players can still be modified while the copy is written
+        Map<UUID, ZPlayerData> snapshot = new HashMap<>();
+        this.manager.getPlayers().forEach((uniqueId, playerData) -> snapshot.put(uniqueId, playerData.snapshot()));
+
+        return this.plugin.getPersist().save(new Snapshot(snapshot), "players", Config.compressPlayerFiles);
+    }
+
+    private void closeWriter() {
+        if (this.writer == null) return;
+        try {
+            this.writer.close();
+        } catch (IOException exception) {
+            exception.printStackTrace();
+        }
+        this.writer = null;
+        this.outputStream = null;
+    }
+
+    /**
+     * Copy of the players, serialized with the same format as {@link ZDataManager}
+     */
+    private static class Snapshot {
+
+        private final Map<UUID, ZPlayerData> players;
+
+        private Snapshot(Map<UUID, ZPlayerData> players) {
+            this.players = players;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package fr.maxlego08.menu.players.storage;
+
+import fr.maxlego08.menu.MenuPlugin;
+import fr.maxlego08.menu.api.players.DataType;
+import fr.maxlego08.menu.players.ZData;
+import fr.maxlego08.menu.players.ZDataManager;
+import fr.maxlego08.menu.players.ZPlayerData;
+import fr.maxlego08.menu.save.Config;
+import fr.maxlego08.menu.zcore.logger.Logger;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Player data stored in a SQL database, one row per player and key.
+ * <p>
+ * The storage is lazy, only the online players are in memory. The changes of a batch are coalesced, only the last
+ * change of each key is written, and they are written in a single transaction.
+ * </p>
+ */
+public class SqlDataStorage extends AsyncDataStorage {
+
+    private final StorageType type;
+    private final String url;
+    private final String table;
+    private Connection connection;
+
+    public SqlDataStorage(MenuPlugin plugin, ZDataManager manager, StorageType type) {
+        this(plugin.getDataFolder(), manager, type);
+    }
+
+    /**
+     * @param folder  The folder of the SQLite and H2 files
+     * @param manager The manager
+     * @param type    The database
+     */
+    public SqlDataStorage(File folder, ZDataManager manager, StorageType type) {
+        super(manager, "zMenu Data Storage");
+        this.type = type;
+        this.table = Config.storageTablePrefix + "player_data";
+        switch (type) {
+            case SQLITE:
+                this.url = "jdbc:sqlite:" + new File(folder, "players.db").getAbsolutePath();
+                break;
+            case H2:
+                this.url = "jdbc:h2:" + new File(folder, "players").getAbsolutePath();
+                break;
+            default:
+                this.url = Config.storageJdbcUrl;
+                break;
+        }
+    }
+
+    @Override
+    public void load() {
+
+        try {
+            Connection connection = this.getConnection();
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + this.table + " (unique_id VARCHAR(36) NOT NULL, data_key VARCHAR(255) NOT NULL, data_type VARCHAR(16) NOT NULL, data_value TEXT, expired_at BIGINT NOT NULL, PRIMARY KEY (unique_id, data_key))");
+            }
+            Logger.info("Player data stored with " + this.type + ".", Logger.LogType.SUCCESS);
+        } catch (SQLException exception) {
+            Logger.info("Unable to open the player data database " + this.url, Logger.LogType.ERROR);
+            exception.printStackTrace();
+        }
+
+        this.start();
+    }
+
+    @Override
+    public boolean isLazy() {
+        return true;
+    }
+
+    @Override
+    protected void write(List<Entry> entries) throws SQLException {
+
+        // Only the last change of each key is kept
+        boolean clearAll = false;
+        Set<UUID> clearedPlayers = new LinkedHashSet<>();
+        Map<Map.Entry<UUID, String>, Entry> changes = new LinkedHashMap<>();
+
+        for (Entry entry : entries) {
+            switch (entry.getOperation()) {
+                case CLEAR_ALL:
+                    clearAll = true;
+                    clearedPlayers.clear();
+                    changes.clear();
+                    break;
+                case CLEAR:
+                    clearedPlayers.add(entry.getUniqueId());
+                    changes.keySet().removeIf(key -> key.getKey().equals(entry.getUniqueId()));
+                    break;
+                default:
+                    changes.put(new AbstractMap.SimpleImmutableEntry<>(entry.getUniqueId(), entry.getKey()), entry);
+                    break;
+            }
+        }
+
+        Connection connection = this.getConnection();
+        connection.setAutoCommit(false);
+        try {
+            if (clearAll) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("DELETE FROM " + this.table);
+                }
+            }
+
+            if (!clearedPlayers.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement("DELETE FROM " + this.table + " WHERE unique_id = ?")) {
+                    for (UUID uniqueId : clearedPlayers) {
+                        statement.setString(1, uniqueId.toString());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            }
+
+            if (!changes.isEmpty()) {
+                try (PreparedStatement upsert = connection.prepareStatement(this.getUpsertQuery()); PreparedStatement delete = connection.prepareStatement("DELETE FROM " + this.table + " WHERE unique_id = ? AND data_key = ?")) {
+                    for (Entry entry : changes.values()) {
+                        if (entry.getOperation() == Operation.SET) {
+                            upsert.setString(1, entry.getUniqueId().toString());
+                            upsert.setString(2, entry.getKey());
+                            upsert.setString(3, entry.getType().name());
+                            upsert.setString(4, entry.getValue() == null ? null : entry.getValue().toString());
+                            upsert.setLong(5, entry.getExpiredAt());
+                            upsert.addBatch();
+                        } else {
+                            delete.setString(1, entry.getUniqueId().toString());
+                            delete.setString(2, entry.getKey());
+                            delete.addBatch();
+                        }
+                    }
+                    upsert.executeBatch();
+                    delete.executeBatch();
+                }
+            }
+
+            connection.commit();
+        } catch (SQLException exception) {
+            connection.rollback();
+            throw exception;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    @Override
+    protected void flush(boolean force) {
+        // Each batch is already committed
+    }
+
+    @Override
+    protected ZPlayerData read(UUID uniqueId) throws SQLException {
+
+        ZPlayerData playerData = null;
+        try (PreparedStatement statement = this.getConnection().prepareStatement("SELECT data_key, data_type, data_value, expired_at FROM " + this.table + " WHERE unique_id = ?")) {
+            statement.setString(1, uniqueId.toString());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    // The rows written before the type column have no type, it is deduced from the value
+                    String typeName = resultSet.getString("data_type");
+                    DataType type = typeName == null ? null : DataType.valueOf(typeName);
+                    ZData data = new ZData(resultSet.getString("data_key"), type, resultSet.getString("data_value"), resultSet.getLong("expired_at"));
+                    if (data.isExpired()) continue;
+                    if (playerData == null) playerData = new ZPlayerData(uniqueId);
+                    playerData.addData(data);
+                }
+            }
+        }
+        return playerData;
+    }
+
+    @Override
+    protected void onClose() {
+        if (this.connection == null) return;
+        try {
+            this.connection.close();
+        } catch (SQLException exception) {
+            exception.printStackTrace();
+        }
+        this.connection = null;
+    }
+
+    private Connection getConnection() throws SQLException {
+        if (this.connection == null || this.connection.isClosed() || !this.connection.isValid(2)) {
+            this.loadDriver();
+            this.connection = this.type == StorageType.JDBC ? DriverManager.getConnection(this.url, Config.storageUser, Config.storagePassword) : DriverManager.getConnection(this.url);
+        }
+        return this.connection;
+    }
+
+    private void loadDriver() {
+        String driver = this.type == StorageType.SQLITE ? "org.sqlite.JDBC" : this.type == StorageType.H2 ? "org.h2.Driver" : null;
+        if (driver == null) return;
+        try {
+            Class.forName(driver);
+        } catch (ClassNotFoundException exception) {
+            Logger.info("The driver " + driver + " is not available for the " + this.type + " storage", Logger.LogType.ERROR);
+        }
+    }
+
+    private String getUpsertQuery() {
+        String columns = this.table + " (unique_id, data_key, data_type, data_value, expired_at)";
+        switch (this.type) {
+            case SQLITE:
+                return "INSERT OR REPLACE INTO " + columns + " VALUES (?, ?, ?, ?, ?)";
+            case H2:
+                return "MERGE INTO " + columns + " KEY (unique_id, data_key) VALUES (?, ?, ?, ?, ?)";
+            default:
+                if (this.url.startsWith("jdbc:postgresql")) {
+                    return "INSERT INTO " + columns + " VALUES (?, ?, ?, ?, ?) ON CONFLICT (unique_id, data_key) DO UPDATE SET data_type = EXCLUDED.data_type, data_value = EXCLUDED.data_value, expired_at = EXCLUDED.expired_at";
+                }
+                return "INSERT INTO " + columns + " VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE data_type = VALUES(data_type), data_value = VALUES(data_value), expired_at = VALUES(expired_at)";
+        }
+    }
+}
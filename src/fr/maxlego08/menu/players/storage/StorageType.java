@@ -0,0 +1,25 @@
+package fr.maxlego08.menu.players.storage;
+
+public enum StorageType {
+
+    /**
+     * players.json with a journal, all the players are kept in memory
+     */
+    JSON,
+
+    /**
+     * Embedded SQLite database, players.db in the plugin folder
+     */
+    SQLITE,
+
+    /**
+     * Embedded H2 database, players.mv.db in the plugin folder, the H2 driver must be available on the server
+     */
+    H2,
+
+    /**
+     * Remote database using {@link fr.maxlego08.menu.save.Config#storageJdbcUrl}, MySQL, MariaDB or PostgreSQL
+     */
+    JDBC,
+
+}
@@ -71,25 +71,33 @@ public class ZActionPlayerData extends ZUtils implements ActionPlayerData {
                 PlayerData data = optional.get();
                 data.removeData(this.papi(this.key, player, false));
             }
-        } else if (this.type == ActionPlayerDataType.ADD) {
-
-            Optional<Data> optional = dataManager.getData(player.getUniqueId(), this.papi(this.key, player, false));
-            if (optional.isPresent()) {
-                Data data = optional.get();
-                data.add(Integer.parseInt(papi(this.value.toString(), player, false)));
-            } else {
-                dataManager.addData(player.getUniqueId(), this.toData(player));
-            }
-        } else if (this.type == ActionPlayerDataType.SUBTRACT) {
-
-            Optional<Data> optional = dataManager.getData(player.getUniqueId(), this.papi(this.key, player, false));
-            if (optional.isPresent()) {
-                Data data = optional.get();
-                data.remove(Integer.parseInt(papi(this.value.toString(), player, false)));
+        } else if (this.type == ActionPlayerDataType.ADD || this.type == ActionPlayerDataType.SUBTRACT) {
+
+            // The placeholders are replaced on the calling thread
+            String key = this.papi(this.key, player, false);
+            Data newData;
+            int amount;
+            if (this.type == ActionPlayerDataType.ADD) {
+                newData = this.toData(player);
+                amount = Integer.parseInt(papi(this.value.toString(), player, false));
             } else {
                 long expiredAt = this.seconds == 0 ? 0 : System.currentTimeMillis() + (1000 * this.seconds);
-                dataManager.addData(player.getUniqueId(), new ZData(this.papi(this.key, player, false), -(int) this.value, expiredAt));
+                newData = new ZData(key, -(int) this.value, expiredAt);
+                amount = -Integer.parseInt(papi(this.value.toString(), player, false));
             }
+
+            // The amount is added to the stored value, a player who is still loading is waited for
+            dataManager.getPlayerAsync(player.getUniqueId()).thenAccept(optional -> {
+                Optional<Data> optionalData = optional.flatMap(playerData -> playerData.getData(key));
+                if (optionalData.isPresent()) {
+                    optionalData.get().add(amount);
+                } else {
+                    dataManager.addData(player.getUniqueId(), newData);
+                }
+            }).exceptionally(throwable -> {
+                throwable.printStackTrace();
+                return null;
+            });
         } else if (this.type == ActionPlayerDataType.SET) {
             dataManager.addData(player.getUniqueId(), this.toData(player));
         }
@@ -1,11 +1,13 @@
 package fr.maxlego08.menu.save;
 
+import fr.maxlego08.menu.players.storage.StorageType;
 import fr.maxlego08.menu.zcore.utils.storage.Persist;
 import fr.maxlego08.menu.zcore.utils.storage.Savable;
 import org.bukkit.event.inventory.ClickType;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -38,12 +40,42 @@ public class Config implements Savable {
     // Seconds save player data: The time in seconds for automatic backup of player data.
     public static int secondsSavePlayerData = 600;
 
-    // Seconds save player data: The time in seconds for automatic backup of inventories data.
-    public static int secondsSavePlayerInventories = 600;
+    // Storage type: where the player data is stored. JSON keeps all the players in memory, SQLITE, H2 and JDBC only load the online players.
+    public static StorageType storageType = StorageType.JSON;
 
-    // Auto save file inventory on update: allows you to save the file of players inventories automatically.
+    // Storage JDBC url: the database used by the JDBC storage type, MySQL, MariaDB or PostgreSQL.
+    public static String storageJdbcUrl = "jdbc:mysql://localhost:3306/zmenu";
+    public static String storageUser = "root";
+    public static String storagePassword = "";
+
+    // Storage table prefix: prefix of the tables created by the SQLITE, H2 and JDBC storage types.
+    public static String storageTablePrefix = "zmenu_";
+
+    // Player data journal max entries: the number of changes written in players.journal before players.json is rewritten and the journal truncated.
+    public static int playerDataJournalMaxEntries = 10000;
+
+    // Player data expiration sweep ticks: the interval in ticks between two removals of the expired player data.
+    public static int playerDataExpirationSweepTicks = 20;
+
+    // Player data offline cache size: with a database storage, the number of offline players kept in memory after a placeholder, a command or a disconnection.
+    public static int playerDataOfflineCacheSize = 1000;
+
+    // Compress player files: players.json is compressed with gzip, the file is smaller but can no longer be edited by hand.
+    public static boolean compressPlayerFiles = false;
+
+    // Player inventory flush ticks: the interval in ticks between two writes of the stored inventories which have changed.
+    public static int playerInventoryFlushTicks = 20;
+
+    // Seconds save player inventories: replaced by playerInventoryFlushTicks, a value from an older config is converted to ticks when the config is loaded.
+    @Deprecated
+    public static int secondsSavePlayerInventories = 0;
+
+    // Auto save file inventory on update: the stored inventories which have changed are written every playerInventoryFlushTicks ticks, otherwise only when the server stops.
     public static boolean autoSaveFileInventoryOnUpdate = true;
 
+    // Refresh shards: the number of buckets over which the buttons sharing the same updateInterval are spread. Each bucket is refreshed on a different tick.
+    public static int refreshShards = 4;
+
     // Default menu name
     public static String mainMenu = "example";
 
@@ -68,6 +100,21 @@ public class Config implements Savable {
     public static String antiDupeDiscordWebhookUrl = "https://discord.com/api/webhooks/<your discord webhook url>";
     public static String antiDupeMessage = "**%player%** use %amount% %itemname% which comes from zMenu. Removing it !";
 
+    // Anti dupe exposure seconds: a player is checked by the anti dupe during this time after a zMenu inventory, then their inventory is swept once.
+    public static long antiDupeExposureSeconds = 300;
+
+    // Anti dupe sweep ticks: the interval in ticks between two searches for the players whose exposure is over.
+    public static int antiDupeSweepTicks = 100;
+
+    // Anti dupe notification window ticks: the alerts of the same player and item during this time are sent to Discord in one embed.
+    public static int antiDupeNotificationWindowTicks = 60;
+
+    // Anti dupe notification queue size: the maximum number of alerts waiting to be sent to Discord, the next alerts are dropped.
+    public static int antiDupeNotificationQueueSize = 100;
+
+    // Anti dupe logs per second: the maximum number of anti dupe alerts written in the console each second, the others are counted.
+    public static int antiDupeLogsPerSecond = 5;
+
     public static List<ClickType> allClicksType = Arrays.asList(ClickType.MIDDLE, ClickType.RIGHT, ClickType.LEFT, ClickType.SHIFT_RIGHT, ClickType.SHIFT_LEFT);
     public static boolean enableCacheItemStack = true;
 
@@ -76,6 +123,17 @@ public class Config implements Savable {
     public static long cachePlaceholderAPI = 20;
     public static boolean enableCachePlaceholderAPI = false;
 
+    // Max size of the PlaceholderAPI cache, the least recently used results are removed first
+    public static int cachePlaceholderAPIMaxSize = 10000;
+
+    // Time to live in milliseconds of a placeholder in the PlaceholderAPI cache, -1 to never expire. A key ending with * matches all the placeholders which start with it.
+    public static Map<String, Long> cachePlaceholderAPITtl = new LinkedHashMap<>();
+
+    static {
+        cachePlaceholderAPITtl.put("%player_name%", -1L);
+        cachePlaceholderAPITtl.put("%vault_eco_balance%", 5000L);
+    }
+
     /**
      * static Singleton instance.
      */
@@ -108,6 +166,13 @@ public class Config implements Savable {
 
     public void load(Persist persist) {
         persist.loadOrSaveDefault(getInstance(), Config.class);
+
+        // A config written before playerInventoryFlushTicks only has the interval in seconds
+        if (secondsSavePlayerInventories > 0) {
+            playerInventoryFlushTicks = secondsSavePlayerInventories * 20;
+            secondsSavePlayerInventories = 0;
+            this.save(persist);
+        }
     }
 
 }
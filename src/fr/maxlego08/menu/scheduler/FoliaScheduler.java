@@ -6,6 +6,7 @@ import com.tcoded.folialib.impl.ServerImplementation;
 import com.tcoded.folialib.wrapper.task.WrappedTask;
 import fr.maxlego08.menu.api.scheduler.ZScheduler;
 import org.bukkit.Location;
+import org.bukkit.entity.Entity;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 
@@ -31,6 +32,12 @@ public class FoliaScheduler implements ZScheduler {
         return this;
     }
 
+    @Override
+    public @NotNull ZScheduler runTaskAtEntity(@NotNull Entity entity, Runnable task) {
+        serverImplementation.runAtEntity(entity, w -> task.run());
+        return this;
+    }
+
     @Override
     public @NotNull ZScheduler runTaskAsynchronously(Runnable task) {
         serverImplementation.runAsync(w -> task.run());
@@ -55,7 +62,11 @@ public class FoliaScheduler implements ZScheduler {
 
     @Override
     public @NotNull ZScheduler runTaskTimer(Location location, long delay, long period, Runnable task) {
-        this.task = serverImplementation.runAtLocationTimer(location, task, delay, period);
+        if (location != null) {
+            this.task = serverImplementation.runAtLocationTimer(location, task, delay, period);
+        } else {
+            this.task = serverImplementation.runTimer(task, delay, period);
+        }
         return this;
     }
 
@@ -0,0 +1,191 @@
+package fr.maxlego08.menu.scheduler;
+
+import fr.maxlego08.menu.MenuPlugin;
+import fr.maxlego08.menu.api.scheduler.ZScheduler;
+import fr.maxlego08.menu.save.Config;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Central refresh engine for the buttons with <b>update: true</b>.
+ * <p>
+ * A single repeating task runs every tick. Refreshes that share the same interval are grouped together and spread over
+ * {@link Config#refreshShards} buckets, a bucket is processed on its own tick, so the work of an interval is split
+ * over several ticks instead of being done all at once. All the refreshes of a player are always in the same bucket,
+ * they are applied in one synchronous batch. On Folia, one task is sent to the region of each player.
+ * </p>
+ */
+public class RefreshScheduler {
+
+    private final MenuPlugin plugin;
+    private final Queue<RefreshTask> pendingTasks = new ConcurrentLinkedQueue<>();
+    private final Map<Long, RefreshGroup> groups = new HashMap<>();
+    private final AtomicInteger taskCount = new AtomicInteger();
+    private final AtomicLong appliedUpdates = new AtomicLong();
+    private final AtomicLong skippedUpdates = new AtomicLong();
+    private ZScheduler timer;
+    private long currentTick = 0;
+
+    public RefreshScheduler(MenuPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start the tick task.
+     */
+    public void start() {
+        if (this.timer != null) return;
+        this.timer = MenuPlugin.isFolia() ? new FoliaScheduler(this.plugin) : new BukkitScheduler(this.plugin);
+        this.timer.runTaskTimer(null, 1, 1, this::tick);
+    }
+
+    /**
+     * Stop the tick task and forget every registered refresh.
+     */
+    public void stop() {
+        if (this.timer != null) {
+            this.timer.cancel();
+            this.timer = null;
+        }
+        this.pendingTasks.clear();
+        this.groups.clear();
+        this.taskCount.set(0);
+    }
+
+    /**
+     * Register a new refresh, can be called from any thread.
+     *
+     * @param player         The player who sees the button
+     * @param intervalMillis The interval in milliseconds, rounded to the tick
+     * @param consumer       The refresh
+     * @return the created {@link RefreshTask}
+     */
+    public RefreshTask schedule(Player player, long intervalMillis, Consumer<RefreshTask> consumer) {
+        RefreshTask task = new RefreshTask(player, Math.max(1, intervalMillis / 50), consumer);
+        this.pendingTasks.add(task);
+        this.taskCount.incrementAndGet();
+        return task;
+    }
+
+    /**
+     * Count a refresh that changed the item and was sent to the client.
+     */
+    public void markApplied() {
+        this.appliedUpdates.incrementAndGet();
+    }
+
+    /**
+     * Count a refresh skipped because the rendered name and lore did not change.
+     */
+    public void markSkipped() {
+        this.skippedUpdates.incrementAndGet();
+    }
+
+    public long getAppliedUpdates() {
+        return this.appliedUpdates.get();
+    }
+
+    public long getSkippedUpdates() {
+        return this.skippedUpdates.get();
+    }
+
+    /**
+     * @return the number of registered refreshes, cancelled refreshes are counted until their next tick
+     */
+    public int getTaskCount() {
+        return this.taskCount.get();
+    }
+
+    private void tick() {
+
+        long tick = this.currentTick++;
+
+        RefreshTask pendingTask;
+        while ((pendingTask = this.pendingTasks.poll()) != null) {
+            this.groups.computeIfAbsent(pendingTask.getInterval(), RefreshGroup::new).add(pendingTask);
+        }
+
+        if (this.groups.isEmpty()) return;
+
+        boolean isFolia = this.plugin.getScheduler().isFolia();
+        Map<Player, List<RefreshTask>> batches = isFolia ? new LinkedHashMap<>() : null;
+
+        Iterator<RefreshGroup> iterator = this.groups.values().iterator();
+        while (iterator.hasNext()) {
+            RefreshGroup group = iterator.next();
+
+            List<RefreshTask> tasks = group.getDueTasks(tick);
+            if (tasks == null) continue;
+
+            Iterator<RefreshTask> taskIterator = tasks.iterator();
+            while (taskIterator.hasNext()) {
+                RefreshTask task = taskIterator.next();
+                if (task.isCancelled() || !task.getPlayer().isOnline()) {
+                    taskIterator.remove();
+                    this.taskCount.decrementAndGet();
+                    group.size--;
+                    continue;
+                }
+
+                if (isFolia) {
+                    batches.computeIfAbsent(task.getPlayer(), p -> new ArrayList<>()).add(task);
+                } else {
+                    task.run();
+                }
+            }
+
+            if (group.size <= 0) iterator.remove();
+        }
+
+        if (isFolia) {
+            ZScheduler scheduler = this.plugin.getScheduler();
+            batches.forEach((player, tasks) -> scheduler.runTaskAtEntity(player, () -> tasks.forEach(RefreshTask::run)));
+        }
+    }
+
+    /**
+     * Refreshes sharing the same interval.
+     */
+    private static class RefreshGroup {
+
+        private final long interval;
+        private final List<RefreshTask>[] buckets;
+        private final long step;
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        private RefreshGroup(long interval) {
+            this.interval = interval;
+            int bucketCount = (int) Math.max(1, Math.min(Config.refreshShards, interval));
+            this.buckets = new List[bucketCount];
+            for (int i = 0; i < bucketCount; i++) {
+                this.buckets[i] = new ArrayList<>();
+            }
+            this.step = interval / bucketCount;
+        }
+
+        private void add(RefreshTask task) {
+            int bucket = Math.floorMod(task.getPlayer().getUniqueId().hashCode(), this.buckets.length);
+            this.buckets[bucket].add(task);
+            this.size++;
+        }
+
+        private List<RefreshTask> getDueTasks(long tick) {
+            long position = tick % this.interval;
+            if (position % this.step != 0) return null;
+            long bucket = position / this.step;
+            return bucket < this.buckets.length ? this.buckets[(int) bucket] : null;
+        }
+    }
+}
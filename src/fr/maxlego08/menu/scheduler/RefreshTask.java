@@ -0,0 +1,51 @@
+package fr.maxlego08.menu.scheduler;
+
+import org.bukkit.entity.Player;
+
+import java.util.function.Consumer;
+
+/**
+ * A button refresh registered in the {@link RefreshScheduler}.
+ * The task is called every interval until it is cancelled.
+ */
+public class RefreshTask {
+
+    private final Player player;
+    private final long interval;
+    private final Consumer<RefreshTask> consumer;
+    private volatile boolean isCancelled = false;
+
+    public RefreshTask(Player player, long interval, Consumer<RefreshTask> consumer) {
+        this.player = player;
+        this.interval = interval;
+        this.consumer = consumer;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * @return the interval in ticks
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    public void cancel() {
+        this.isCancelled = true;
+    }
+
+    /**
+     * Run the refresh if the task has not been cancelled.
+     */
+    public void run() {
+        if (!this.isCancelled) {
+            this.consumer.accept(this);
+        }
+    }
+}
@@ -76,9 +76,11 @@ public enum Message implements IMessage {
     DESCRIPTION_PLAYERS_KEYS("Returns the list of keys of a player"),
     DESCRIPTION_PLAYERS_CLEAR_ALL("Clear all player's data"),
     DESCRIPTION_PLAYERS_CLEAR_PLAYER("Clear player's data"),
+    DESCRIPTION_PLAYERS_BULK("Apply a change to many players at once, * for all the online players or a list of players separated by commas"),
 	DESCRIPTION_OPEN_MAIN_MENU("Open the main menu"),
 	DESCRIPTION_CREATE("Create a new config file"),
 	DESCRIPTION_INVENTORIES("Open inventories builder"),
+	DESCRIPTION_STATS("Show performance statistics"),
 	
 	RELOAD("§aYou have just reloaded the configuration files. §8(§7%inventories% inventories§8)"),
 	RELOAD_INVENTORY("§aYou have just reloaded the inventories files. §8(§7%inventories% inventories§8)"),
@@ -101,6 +103,9 @@ public enum Message implements IMessage {
 	PLAYERS_DATA_SET("§aYou have just added a data for the §b%player% §a with the §f%key%§a."),
 	PLAYERS_DATA_ADD("§aYou have just added a data for the §b%player% §a with the §f%key%§a."),
 	PLAYERS_DATA_SUBTRACT("§aYou have just subtract a data for the §b%player% §a with the §f%key%§a."),
+	PLAYERS_DATA_UNKNOWN_PLAYER("§cUnable to find the player §f%player%§c, the player must have joined the server once."),
+	PLAYERS_DATA_BULK("§aYou have just applied §f%action% §aon the key §f%key% §afor §b%count% §aplayers."),
+	PLAYERS_DATA_BATCH_ERROR("§cNothing was changed§8: §f%error%"),
 	PLAYERS_DATA_KEYS_SUCCESS("§aPlayer's Key §f%player%§8: §7%keys%"),
 	PLAYERS_DATA_KEYS_EMPTY("§cThe §f%player% §chas no key."),
 	PLAYERS_DATA_GET_SUCCESS(
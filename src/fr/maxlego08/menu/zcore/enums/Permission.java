@@ -17,6 +17,7 @@ public enum Permission {
 	ZMENU_MARKETPLACE,
 	ZMENU_INVENTORIES,
 	ZMENU_DESCRIPTION,
+	ZMENU_STATS,
 
 	;
 
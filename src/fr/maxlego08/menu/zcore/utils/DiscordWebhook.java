@@ -6,13 +6,14 @@ import org.bukkit.Bukkit;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.RegisteredServiceProvider;
 
-import javax.net.ssl.HttpsURLConnection;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.reflect.Array;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -71,10 +72,69 @@ public class DiscordWebhook extends ZUtils {
         json.put("username", this.replaceString(this.username, dupeItem));
         json.put("avatar_url", this.avatarUrl);
 
+        HttpURLConnection connection = this.post(json);
+        connection.getInputStream().close();
+        connection.disconnect();
+    }
+
+    /**
+     * Send one message with an embed for each description, Discord accepts up to 10 embeds per message
+     *
+     * @param descriptions The descriptions of the embeds
+     * @return 0 if the message is sent, else the time in milliseconds to wait because Discord rate limits the webhook
+     */
+    public long execute(List<String> descriptions) throws IOException {
+
+        JSONObject json = new JSONObject();
+        json.put("username", this.username);
+        json.put("avatar_url", this.avatarUrl);
+
+        JSONObject[] embeds = new JSONObject[descriptions.size()];
+        for (int index = 0; index < embeds.length; index++) {
+            JSONObject embed = new JSONObject();
+            embed.put("description", descriptions.get(index));
+            embeds[index] = embed;
+        }
+        json.put("embeds", embeds);
+
+        HttpURLConnection connection = this.post(json);
+        try {
+            int code = connection.getResponseCode();
+            if (code == 429) {
+                return this.getRetryAfter(connection.getHeaderField("Retry-After"));
+            }
+            if (code / 100 != 2) {
+                throw new IOException("Discord webhook returned HTTP " + code);
+            }
+            connection.getInputStream().close();
+            return 0;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Retry-After is in seconds and can be a decimal
+     */
+    private long getRetryAfter(String retryAfter) {
+        try {
+            return retryAfter == null ? 1000 : Math.max(1, (long) Math.ceil(Double.parseDouble(retryAfter) * 1000));
+        } catch (NumberFormatException exception) {
+            return 1000;
+        }
+    }
+
+    /**
+     * Post the json, http is accepted so the webhook can point to a local server
+     */
+    private HttpURLConnection post(JSONObject json) throws IOException {
+
         URL url = new URL(this.url);
-        HttpsURLConnection connection = (HttpsURLConnection) url.openConnection();
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
         connection.addRequestProperty("Content-Type", "application/json");
         connection.addRequestProperty("User-Agent", "Java-DiscordWebhook-BY-Gelox_");
+        connection.setConnectTimeout(5000);
+        connection.setReadTimeout(10000);
         connection.setDoOutput(true);
         connection.setRequestMethod("POST");
 
@@ -82,13 +142,11 @@ public class DiscordWebhook extends ZUtils {
         stream.write(json.toString().getBytes(StandardCharsets.UTF_8));
         stream.flush();
         stream.close();
-
-        connection.getInputStream().close();
-        connection.disconnect();
+        return connection;
     }
 
     @Override
-    protected String getItemName(ItemStack itemStack) {
+    public String getItemName(ItemStack itemStack) {
         if (itemStack.hasItemMeta() && itemStack.getItemMeta().hasDisplayName()) {
             return this.STRIP_EXTRAS_PATTERN.matcher(itemStack.getItemMeta().getDisplayName()).replaceAll("");
         }
@@ -150,7 +208,25 @@ public class DiscordWebhook extends ZUtils {
         }
 
         private String quote(String string) {
-            return "\"" + string + "\"";
+            StringBuilder builder = new StringBuilder(string.length() + 2).append('"');
+            for (char character : string.toCharArray()) {
+                switch (character) {
+                    case '"':
+                        builder.append("\\\"");
+                        break;
+                    case '\\':
+                        builder.append("\\\\");
+                        break;
+                    case '\n':
+                        builder.append("\\n");
+                        break;
+                    default:
+                        if (character < 0x20) builder.append(String.format("\\u%04x", (int) character));
+                        else builder.append(character);
+                        break;
+                }
+            }
+            return builder.append('"').toString();
         }
     }
 
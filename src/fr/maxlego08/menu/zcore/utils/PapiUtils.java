@@ -1,17 +1,17 @@
 package fr.maxlego08.menu.zcore.utils;
 
 import fr.maxlego08.menu.placeholder.Placeholder;
+import fr.maxlego08.menu.placeholder.PlaceholderCache;
+import fr.maxlego08.menu.placeholder.PlaceholderContext;
 import fr.maxlego08.menu.save.Config;
 import org.bukkit.OfflinePlayer;
 
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class PapiUtils extends TranslationHelper {
 
     private static volatile Placeholder placeholder;
-    private transient final ConcurrentHashMap<String, CacheEntry> cache = new ConcurrentHashMap<>();
 
     private Placeholder use() {
         if (placeholder == null) {
@@ -28,17 +28,22 @@ public class PapiUtils extends TranslationHelper {
         if (placeHolder == null) return null;
         if (player == null) return placeHolder;
         if (!placeHolder.contains("%")) return placeHolder;
-        String cacheKey = placeHolder + ";" + player.getUniqueId();
-        CacheEntry cachedResult = cache.get(cacheKey);
 
-        if (Config.enableCachePlaceholderAPI && cachedResult != null && cachedResult.isValid() && useCache) {
-            return cachedResult.value;
+        PlaceholderCache cache = PlaceholderCache.getInstance();
+        if (Config.enableCachePlaceholderAPI && useCache) {
+            String cachedResult = cache.get(placeHolder, player.getUniqueId());
+            if (cachedResult != null) return cachedResult;
         }
 
-        String result = this.use().setPlaceholders(player, placeHolder).replace("%player%", player.getName());
+        // During the render of an inventory, each placeholder of the player is resolved only once
+        PlaceholderContext context = PlaceholderContext.current();
+        String result = context != null && context.isFor(player)
+                ? context.resolve(placeHolder, token -> this.use().setPlaceholders(player, token))
+                : this.use().setPlaceholders(player, placeHolder);
+        result = result.replace("%player%", player.getName());
 
         if (Config.enableCachePlaceholderAPI) {
-            this.cache.put(cacheKey, new CacheEntry(result, System.currentTimeMillis()));
+            cache.put(placeHolder, player.getUniqueId(), result);
         }
 
         return result;
@@ -48,19 +53,4 @@ public class PapiUtils extends TranslationHelper {
         if (player == null) return placeHolders;
         return placeHolders.stream().map(placeHolder -> papi(placeHolder, player, useCache)).collect(Collectors.toList());
     }
-
-    private static class CacheEntry {
-        String value;
-        long timeStamp; // Time when the cache entry was created
-
-        public CacheEntry(String value, long timeStamp) {
-            this.value = value;
-            this.timeStamp = timeStamp;
-        }
-
-        public boolean isValid() {
-            // Check if the cache entry is still valid (not older than 1000 milliseconds)
-            return System.currentTimeMillis() - timeStamp < Config.cachePlaceholderAPI;
-        }
-    }
 }
@@ -6,17 +6,18 @@ import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
 import fr.maxlego08.menu.api.players.Data;
+import fr.maxlego08.menu.api.players.DataType;
 import fr.maxlego08.menu.players.ZData;
 import fr.maxlego08.menu.zcore.ZPlugin;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
-import java.util.HashMap;
 import java.util.Map;
 
 public class DataAdapter extends TypeAdapter<Data> {
 
     private static final String KEY = "key";
+    private static final String TYPE = "type";
     private static final String VALUE = "value";
     private static final String EXPIRED_AT = "expiredAt";
     private static final Type seriType = new TypeToken<Map<String, Object>>() {
@@ -32,12 +33,26 @@ public class DataAdapter extends TypeAdapter<Data> {
     }
 
     @Override
-    public void write(JsonWriter jsonWriter, Data location) throws IOException {
-        if (location == null) {
+    public void write(JsonWriter jsonWriter, Data data) throws IOException {
+        if (data == null) {
             jsonWriter.nullValue();
             return;
         }
-        jsonWriter.value(getRaw(location));
+
+        DataType type = data.getType();
+        Object value = data.getValue();
+
+        jsonWriter.beginObject();
+        jsonWriter.name(KEY).value(data.getKey());
+        jsonWriter.name(TYPE).value(type.name());
+        jsonWriter.name(VALUE);
+        if (value == null) jsonWriter.nullValue();
+        else if (type == DataType.LONG) jsonWriter.value(((Number) value).longValue());
+        else if (type == DataType.DOUBLE) jsonWriter.value(((Number) value).doubleValue());
+        else if (type == DataType.BOOLEAN) jsonWriter.value((Boolean) value);
+        else jsonWriter.value(value.toString());
+        jsonWriter.name(EXPIRED_AT).value(data.getExpiredAt());
+        jsonWriter.endObject();
     }
 
     @Override
@@ -46,17 +61,52 @@ public class DataAdapter extends TypeAdapter<Data> {
             jsonReader.nextNull();
             return null;
         }
-        return fromRaw(jsonReader.nextString());
-    }
 
-    private String getRaw(Data data) {
-        Map<String, Object> serial = new HashMap<>();
+        // Old format, the data was stored as a json string
+        if (jsonReader.peek() == JsonToken.STRING) {
+            return fromRaw(jsonReader.nextString());
+        }
+
+        String key = null;
+        DataType type = null;
+        Object value = null;
+        long expiredAt = 0;
 
-        serial.put(KEY, data.getKey());
-        serial.put(VALUE, data.getValue());
-        serial.put(EXPIRED_AT, data.getExpiredAt());
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            switch (jsonReader.nextName()) {
+                case KEY:
+                    key = jsonReader.nextString();
+                    break;
+                case TYPE:
+                    type = DataType.valueOf(jsonReader.nextString());
+                    break;
+                case VALUE:
+                    value = this.readValue(jsonReader, type);
+                    break;
+                case EXPIRED_AT:
+                    expiredAt = jsonReader.nextLong();
+                    break;
+                default:
+                    jsonReader.skipValue();
+                    break;
+            }
+        }
+        jsonReader.endObject();
 
-        return plugin.getGson().toJson(serial);
+        return new ZData(key, type, value, expiredAt);
+    }
+
+    private Object readValue(JsonReader jsonReader, DataType type) throws IOException {
+        JsonToken token = jsonReader.peek();
+        if (token == JsonToken.NULL) {
+            jsonReader.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) return jsonReader.nextBoolean();
+        if (token == JsonToken.NUMBER && type == DataType.LONG) return jsonReader.nextLong();
+        if (token == JsonToken.NUMBER && type == DataType.DOUBLE) return jsonReader.nextDouble();
+        return jsonReader.nextString();
     }
 
     private Data fromRaw(String raw) {
@@ -22,22 +22,35 @@ import java.util.zip.GZIPOutputStream;
 public class Base64ItemStack {
 
     public static String encode(ItemStack item) {
+        byte[] bytes = toBytes(item);
+        return bytes == null ? null : Base64.encode(bytes);
+    }
+
+    public static ItemStack decode(String data) {
+        return fromBytes(Base64.decode(data));
+    }
+
+    /**
+     * @param item The item
+     * @return the item serialized and compressed, without the Base64 encoding
+     */
+    public static byte[] toBytes(ItemStack item) {
         try {
             ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
             GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream);
             ObjectOutputStream objectOutputStream = new BukkitObjectOutputStream(gzipOutputStream);
             objectOutputStream.writeObject(item);
             objectOutputStream.close();
-            return Base64.encode(byteArrayOutputStream.toByteArray());
+            return byteArrayOutputStream.toByteArray();
         } catch (IOException exception) {
             exception.printStackTrace();
             return null;
         }
     }
 
-    public static ItemStack decode(String data) {
+    public static ItemStack fromBytes(byte[] data) {
         try {
-            ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(Base64.decode(data));
+            ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(data);
             GZIPInputStream gzipInputStream = new GZIPInputStream(byteArrayInputStream);
             ObjectInputStream objectInputStream = new BukkitObjectInputStream(gzipInputStream);
             ItemStack item = (ItemStack) objectInputStream.readObject();
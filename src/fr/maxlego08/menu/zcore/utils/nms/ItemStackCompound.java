@@ -3,6 +3,9 @@ package fr.maxlego08.menu.zcore.utils.nms;
 import fr.maxlego08.menu.zcore.utils.nms.ItemStackUtils.EnumReflectionItemStack;
 import org.bukkit.inventory.ItemStack;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
 public class ItemStackCompound {
 
     /**
@@ -25,6 +28,12 @@ public class ItemStackCompound {
     }
 
     private final EnumReflectionCompound reflection;
+    // Resolved once by hasKey
+    private Class<?> craftItemStackClass;
+    private Field handleField;
+    private Method asNMSCopyMethod;
+    private Method getTagMethod;
+    private volatile Method hasKeyMethod;
 
     /**
      * Constructs an ItemStackCompound instance based on the given EnumReflectionCompound.
@@ -318,4 +327,42 @@ public class ItemStackCompound {
         }
         return false;
     }
+
+    /**
+     * Same as {@link #isKey(ItemStack, String)} but the reflection is resolved once, the NMS item of a CraftItemStack
+     * is read without a copy and no compound is created for an item without tag.
+     *
+     * @param itemStack The ItemStack to check.
+     * @param key       The key to check for.
+     * @return True if the key is present, false otherwise.
+     */
+    public boolean hasKey(ItemStack itemStack, String key) {
+        try {
+            if (this.hasKeyMethod == null) this.loadMethods();
+
+            Object nmsItemStack = this.handleField != null && this.craftItemStackClass.isInstance(itemStack) ? this.handleField.get(itemStack) : this.asNMSCopyMethod.invoke(null, itemStack);
+            if (nmsItemStack == null) return false;
+
+            Object compound = this.getTagMethod.invoke(nmsItemStack);
+            return compound != null && (boolean) this.hasKeyMethod.invoke(compound, key);
+        } catch (Exception ignored) {
+        }
+        return false;
+    }
+
+    private synchronized void loadMethods() throws Exception {
+        if (this.hasKeyMethod != null) return;
+
+        this.craftItemStackClass = EnumReflectionItemStack.CRAFTITEMSTACK.getClassz();
+        try {
+            Field field = this.craftItemStackClass.getDeclaredField("handle");
+            field.setAccessible(true);
+            this.handleField = field;
+        } catch (Exception ignored) {
+            // The item is copied with asNMSCopy
+        }
+        this.asNMSCopyMethod = this.craftItemStackClass.getMethod("asNMSCopy", ItemStack.class);
+        this.getTagMethod = EnumReflectionItemStack.ITEMSTACK.getClassz().getMethod(this.reflection.getMethodGetTag());
+        this.hasKeyMethod = EnumReflectionItemStack.NBTTAGCOMPOUND.getClassz().getMethod(this.reflection.getMethodHasKey(), String.class);
+    }
 }
@@ -32,11 +32,34 @@ public class ItemStackUtils {
             return itemStackSerialized.get(paramItemStack);
         }
 
+        byte[] bytes = serializeItemStackBytes(paramItemStack);
+        if (bytes == null) {
+            return "null";
+        }
+
+        String string = Base64.encode(bytes);
+        if (!NmsVersion.getCurrentVersion().isAttributItemStack()) {
+            itemStackSerialized.put(paramItemStack, string);
+        }
+        return string;
+    }
+
+    /**
+     * Serialize an item without the Base64 encoding, the bytes are already compressed
+     *
+     * @param paramItemStack The item
+     * @return the bytes, null if the item cannot be serialized
+     */
+    public static byte[] serializeItemStackBytes(ItemStack paramItemStack) {
+
+        if (paramItemStack == null) {
+            return null;
+        }
+
         if (NmsVersion.getCurrentVersion().isAttributItemStack()) {
-            return Base64ItemStack.encode(paramItemStack);
+            return Base64ItemStack.toBytes(paramItemStack);
         }
 
-        ByteArrayOutputStream localByteArrayOutputStream = null;
         try {
             Class<?> localClass = EnumReflectionItemStack.NBTTAGCOMPOUND.getClassz();
             Constructor<?> localConstructor = localClass.getConstructor();
@@ -53,18 +76,17 @@ public class ItemStackUtils {
                         .invoke(localObject2, localObject1);
             }
 
-            localByteArrayOutputStream = new ByteArrayOutputStream();
+            ByteArrayOutputStream localByteArrayOutputStream = new ByteArrayOutputStream();
             EnumReflectionItemStack.NBTCOMPRESSEDSTREAMTOOLS.getClassz()
                     .getMethod("a", localClass, OutputStream.class)
                     .invoke(null, localObject1, localByteArrayOutputStream);
+            return localByteArrayOutputStream.toByteArray();
         } catch (Exception localException) {
             if (Config.enableDebug) {
                 localException.printStackTrace();
             }
         }
-        String string = Base64.encode(localByteArrayOutputStream.toByteArray());
-        itemStackSerialized.put(paramItemStack, string);
-        return string;
+        return null;
     }
 
     public static ItemStack deserializeItemStack(String paramString) {
@@ -73,16 +95,37 @@ public class ItemStackUtils {
             return null;
         }
 
-        if (NmsVersion.getCurrentVersion().isAttributItemStack()) {
-            return Base64ItemStack.decode(paramString);
-        }
-
-        ByteArrayInputStream localByteArrayInputStream = null;
+        byte[] bytes;
         try {
-            localByteArrayInputStream = new ByteArrayInputStream(Base64.decode(paramString));
+            bytes = Base64.decode(paramString);
         } catch (Exception ignored) {
+            return null;
         }
 
+        ItemStack localItemStack = deserializeItemStack(bytes);
+        if (localItemStack != null && !NmsVersion.getCurrentVersion().isAttributItemStack() && !itemStackSerialized.containsKey(localItemStack))
+            itemStackSerialized.put(localItemStack, paramString);
+        return localItemStack;
+    }
+
+    /**
+     * Deserialize an item written by {@link #serializeItemStackBytes(ItemStack)}
+     *
+     * @param bytes The bytes
+     * @return the item, null if the bytes cannot be read
+     */
+    public static ItemStack deserializeItemStack(byte[] bytes) {
+
+        if (bytes == null) {
+            return null;
+        }
+
+        if (NmsVersion.getCurrentVersion().isAttributItemStack()) {
+            return Base64ItemStack.fromBytes(bytes);
+        }
+
+        ByteArrayInputStream localByteArrayInputStream = new ByteArrayInputStream(bytes);
+
         Class<?> localClass1 = EnumReflectionItemStack.NBTTAGCOMPOUND.getClassz();
         Class<?> localClass2 = EnumReflectionItemStack.ITEMSTACK.getClassz();
         Object localObject1 = null;
@@ -118,8 +161,6 @@ public class ItemStackUtils {
         } catch (Exception localException) {
             // localException.printStackTrace();
         }
-        if (localItemStack != null && !itemStackSerialized.containsKey(localItemStack))
-            itemStackSerialized.put(localItemStack, paramString);
         return localItemStack;
 
     }
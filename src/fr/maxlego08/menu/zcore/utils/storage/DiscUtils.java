@@ -5,6 +5,9 @@ import java.net.URL;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 public class DiscUtils {
 
@@ -69,6 +72,21 @@ public class DiscUtils {
         }
     }
 
+    // -------------------------------------------- //
+    // MOVE
+    // -------------------------------------------- //
+
+    /**
+     * Replace a file, atomically if the file system supports it
+     */
+    public static void move(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
     // -------------------------------------------- //
     // DOWNLOAD
     // -------------------------------------------- //
@@ -1,20 +1,62 @@
 package fr.maxlego08.menu.zcore.utils.storage;
 
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 import fr.maxlego08.menu.save.Config;
 import fr.maxlego08.menu.zcore.ZPlugin;
 import fr.maxlego08.menu.zcore.enums.Folder;
+import fr.maxlego08.menu.zcore.logger.Logger;
 import fr.maxlego08.menu.zcore.logger.Logger.LogType;
 import fr.maxlego08.menu.zcore.utils.ZUtils;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.lang.reflect.Type;
-
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Save and load the json files.
+ * <p>
+ * The files are streamed with a {@link JsonWriter} and a {@link JsonReader}, the document is never held in memory as
+ * a string. A file is written next to the current one then renamed, so a crash during a save keeps the previous
+ * file. A file can be compressed with gzip, the compression is detected when the file is loaded.
+ * </p>
+ */
 public class Persist extends ZUtils {
 
-    private final ZPlugin p;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final File folder;
+    private final Gson gson;
+    private final Logger logger;
 
     public Persist(ZPlugin p) {
-        this.p = p;
+        this(p.getDataFolder(), p.getGson(), p.getLog());
+    }
+
+    /**
+     * @param folder The folder of the files
+     * @param gson   The gson used to write and read the files
+     * @param logger The logger of the messages
+     */
+    public Persist(File folder, Gson gson, Logger logger) {
+        this.folder = folder;
+        this.gson = gson;
+        this.logger = logger;
     }
 
     // ------------------------------------------------------------ //
@@ -38,7 +80,7 @@ public class Persist extends ZUtils {
     // ------------------------------------------------------------ //
 
     public File getFile(String name) {
-        return new File(p.getDataFolder(), name + ".json");
+        return new File(this.folder, name + ".json");
     }
 
     public File getFile(Class<?> clazz) {
@@ -68,16 +110,35 @@ public class Persist extends ZUtils {
     }
 
     public <T> T loadOrSaveDefault(T def, Class<T> clazz, File file) {
+        try {
+            return loadOrSaveDefaultOrThrow(def, clazz, file);
+        } catch (IOException exception) {
+            this.logger.log("Using default as I failed to read: " + file + ", the file is kept", LogType.ERROR);
+            return def;
+        }
+    }
+
+    /**
+     * Load a file, the default value is saved if the file doesn't exist. A file which can't be parsed is renamed with
+     * the suffix <b>_bad</b> and the default value is returned.
+     *
+     * @param def   The default value
+     * @param clazz The class of the value
+     * @param file  The file
+     * @return the loaded value, or the default value
+     * @throws IOException if the file exists but can't be read, the file is kept as it is
+     */
+    public <T> T loadOrSaveDefaultOrThrow(T def, Class<T> clazz, File file) throws IOException {
         if (!file.exists()) {
-            p.getLog().log("Creating default: " + file, LogType.SUCCESS);
+            this.logger.log("Creating default: " + file, LogType.SUCCESS);
             this.save(def, file);
             return def;
         }
 
-        T loaded = this.load(clazz, file);
+        T loaded = this.readOrThrow(clazz, file);
 
         if (loaded == null) {
-            p.getLog().log("Using default as I failed to load: " + file, LogType.WARNING);
+            this.logger.log("Using default as I failed to load: " + file, LogType.WARNING);
 
             /*
              * Create new config backup
@@ -86,7 +147,7 @@ public class Persist extends ZUtils {
             File backup = new File(file.getPath() + "_bad");
             if (backup.exists())
                 backup.delete();
-            p.getLog().log("Backing up copy of bad file to: " + backup, LogType.WARNING);
+            this.logger.log("Backing up copy of bad file to: " + backup, LogType.WARNING);
 
             file.renameTo(backup);
 
@@ -94,7 +155,7 @@ public class Persist extends ZUtils {
         } else {
 
             if (Config.enableLogStorageFile) {
-                p.getLog().log(file.getPath() + " loaded successfully !", LogType.SUCCESS);
+                this.logger.log(file.getPath() + " loaded successfully !", LogType.SUCCESS);
             }
 
         }
@@ -117,18 +178,48 @@ public class Persist extends ZUtils {
     }
 
     public boolean save(Object instance, File file) {
+        return save(instance, file, false);
+    }
+
+    public boolean save(Object instance, String name, boolean compress) {
+        return save(instance, getFile(name), compress);
+    }
+
+    /**
+     * Save an object in a file
+     *
+     * @param instance The object
+     * @param file     The file
+     * @param compress true to compress the file with gzip
+     * @return true if the file is saved
+     */
+    public boolean save(Object instance, File file, boolean compress) {
+
+        File tempFile = new File(file.getPath() + ".tmp");
 
         try {
 
-            boolean b = DiscUtils.writeCatch(file, p.getGson().toJson(instance));
+            try (FileOutputStream outputStream = new FileOutputStream(tempFile)) {
+                OutputStream stream = compress ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : outputStream;
+                try (JsonWriter jsonWriter = new JsonWriter(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE))) {
+                    jsonWriter.setIndent("  ");
+                    this.gson.toJson(instance, instance.getClass(), jsonWriter);
+                    jsonWriter.flush();
+                    if (compress) ((GZIPOutputStream) stream).finish();
+                    outputStream.getFD().sync();
+                }
+            }
+
+            DiscUtils.move(tempFile, file);
             if (Config.enableLogStorageFile) {
-                p.getLog().log(file.getAbsolutePath() + " successfully saved !", LogType.SUCCESS);
+                this.logger.log(file.getAbsolutePath() + " successfully saved !", LogType.SUCCESS);
             }
-            return b;
+            return true;
 
         } catch (Exception e) {
-            p.getLog().log("cannot save file " + file.getAbsolutePath(), LogType.ERROR);
+            this.logger.log("cannot save file " + file.getAbsolutePath(), LogType.ERROR);
             e.printStackTrace();
+            tempFile.delete();
 
             return false;
         }
@@ -145,20 +236,7 @@ public class Persist extends ZUtils {
     }
 
     public <T> T load(Class<T> clazz, File file) {
-        String content = DiscUtils.readCatch(file);
-        if (content == null) {
-            return null;
-        }
-
-        try {
-            return p.getGson().fromJson(content, clazz);
-        } catch (Exception ex) { // output the error message rather than full
-            // stack trace; error parsing the file, most
-            // likely
-            p.getLog().log(ex.getMessage(), LogType.ERROR);
-        }
-
-        return null;
+        return read(clazz, file);
     }
 
     // LOAD BY TYPE
@@ -169,20 +247,77 @@ public class Persist extends ZUtils {
 
     @SuppressWarnings("unchecked")
     public <T> T load(Type typeOfT, File file) {
-        String content = DiscUtils.readCatch(file);
-        if (content == null) {
+        return read(typeOfT, file);
+    }
+
+    private <T> T read(Type typeOfT, File file) {
+        try {
+            return readOrThrow(typeOfT, file);
+        } catch (IOException ex) {
+            // Already logged
             return null;
         }
+    }
 
-        try {
-            return p.getGson().fromJson(content, typeOfT);
-        } catch (Exception ex) { // output the error message rather than full
-            // stack trace; error parsing the file, most
-            // likely
-            p.getLog().log(ex.getMessage(), LogType.ERROR);
+    /**
+     * Read a file, an error while reading the file is logged with its stack trace and thrown. A file which can't be
+     * parsed is only logged, it is most likely corrupted.
+     *
+     * @return the value, null if the file doesn't exist or can't be parsed
+     * @throws IOException if the file can't be read
+     */
+    private <T> T readOrThrow(Type typeOfT, File file) throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (JsonReader jsonReader = new JsonReader(new BufferedReader(new InputStreamReader(openInput(file), StandardCharsets.UTF_8), BUFFER_SIZE))) {
+            return this.gson.fromJson(jsonReader, typeOfT);
+        } catch (Exception ex) {
+            // Gson wraps the errors of the reader
+            IOException cause = getReadError(ex);
+            if (cause != null) throw readError(file, cause);
+
+            // output the error message rather than full stack trace; error parsing the file, most likely
+            this.logger.log(ex.getMessage(), LogType.ERROR);
         }
 
         return null;
     }
 
+    private IOException readError(File file, IOException exception) {
+        this.logger.log("Unable to read " + file.getAbsolutePath() + ": " + exception.getMessage(), LogType.ERROR);
+        exception.printStackTrace();
+        return exception;
+    }
+
+    /**
+     * @return the error of the reader which caused this exception, null if the content of the file is invalid
+     */
+    private static IOException getReadError(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            // A truncated or malformed file is corrupted, it can't be read again
+            if (cause instanceof MalformedJsonException || cause instanceof EOFException || cause instanceof ZipException) {
+                return null;
+            }
+            if (cause instanceof IOException) return (IOException) cause;
+        }
+        return null;
+    }
+
+    /**
+     * Open a file, a file starting with the gzip magic number is decompressed
+     */
+    private InputStream openInput(File file) throws IOException {
+        InputStream inputStream = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+        inputStream.mark(2);
+        int first = inputStream.read();
+        int second = inputStream.read();
+        inputStream.reset();
+        if (first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >> 8)) {
+            return new GZIPInputStream(inputStream, BUFFER_SIZE);
+        }
+        return inputStream;
+    }
+
 }
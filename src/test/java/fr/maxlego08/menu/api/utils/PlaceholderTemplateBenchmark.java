@@ -0,0 +1,81 @@
+package fr.maxlego08.menu.api.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Render of a lore line with the local placeholders of a paginated button.
+ * <p>
+ * {@code mvn -Pjmh test -Djmh.benchmarks=PlaceholderTemplateBenchmark}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaceholderTemplateBenchmark {
+
+    private static final String LINE = "§7Page §e%page%§7/§e%maxPage% §8- §7Owner: §f%capitalize_owner% §8(%player_name%)";
+
+    private Map<String, String> values;
+    private Placeholders placeholders;
+    private PlaceholderTemplate template;
+
+    @Setup
+    public void setup() {
+        this.values = new HashMap<>();
+        this.values.put("page", "2");
+        this.values.put("maxPage", "5");
+        this.values.put("owner", "steve");
+        this.values.put("slot", "13");
+        this.values.put("index", "4");
+        this.placeholders = new Placeholders(this.values);
+        this.template = PlaceholderTemplate.compile(LINE);
+    }
+
+    /**
+     * The replace of each value and prefix, like before the templates
+     */
+    @Benchmark
+    public String replaceEachValue() {
+        String string = LINE;
+        for (Map.Entry<String, String> entry : this.values.entrySet()) {
+            string = string.replace("%" + entry.getKey() + "%", entry.getValue());
+            string = string.replace("%upper_" + entry.getKey() + "%", entry.getValue().toUpperCase());
+            string = string.replace("%lower_" + entry.getKey() + "%", entry.getValue().toLowerCase());
+            String capitalize = entry.getValue();
+            if (capitalize.length() > 1) capitalize = capitalize.substring(0, 1).toUpperCase() + capitalize.substring(1);
+            string = string.replace("%capitalize_" + entry.getKey() + "%", capitalize);
+        }
+        return string;
+    }
+
+    @Benchmark
+    public String compileAndRender() {
+        return PlaceholderTemplate.compile(LINE).render(this.values);
+    }
+
+    @Benchmark
+    public String parseString() {
+        return this.placeholders.parse(LINE);
+    }
+
+    @Benchmark
+    public String renderTemplate() {
+        return this.placeholders.parse(this.template);
+    }
+}
@@ -0,0 +1,93 @@
+package fr.maxlego08.menu.api.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PlaceholderTemplateTest {
+
+    private static Placeholders placeholders(String... values) {
+        Map<String, String> map = new HashMap<>();
+        for (int index = 0; index < values.length; index += 2) {
+            map.put(values[index], values[index + 1]);
+        }
+        return new Placeholders(map);
+    }
+
+    @Test
+    void replaceReferences() {
+        Placeholders placeholders = placeholders("name", "steve", "page", "3");
+        assertEquals("Hello steve, page 3/4", placeholders.parse("Hello %name%, page %page%/4"));
+        assertEquals("STEVE Steve steve", placeholders.parse("%upper_name% %capitalize_name% %lower_name%"));
+        assertEquals("%player_name% 100%", placeholders.parse("%player_name% 100%"));
+    }
+
+    @Test
+    void referenceWithSpaces() {
+        Placeholders placeholders = placeholders("player name", "steve", "name", "alex");
+        assertEquals("steve", placeholders.parse("%player name%"));
+        assertEquals("50% of alex", placeholders.parse("50% of %name%"));
+    }
+
+    @Test
+    void addOneOnlyWithKey() {
+        Placeholders placeholders = placeholders("page", "3");
+        assertEquals("%add_one_page% %remove_one_page%", placeholders.parse("%add_one_page% %remove_one_page%"));
+        assertEquals("4 2", placeholders.parse("%add_one_page% %remove_one_page%", "page", "3"));
+    }
+
+    @Test
+    void nestedReference() {
+        Placeholders placeholders = placeholders("key", "balance");
+        assertEquals("%vault_balance%", placeholders.parse("%vault_%key%%"));
+        assertEquals("%balance_top%", placeholders.parse("%%key%_top%"));
+    }
+
+    @Test
+    void nestedLocalReference() {
+        Placeholders placeholders = placeholders("index", "2", "name_2", "alex");
+        assertEquals("alex", placeholders.parse("%name_%index%%"));
+    }
+
+    @Test
+    void chainedValue() {
+        Placeholders placeholders = placeholders("title", "%name% (%page%)", "name", "steve", "page", "3");
+        assertEquals("steve (3)", placeholders.parse("%title%"));
+    }
+
+    @Test
+    void selfReferenceStops() {
+        Placeholders placeholders = placeholders("loop", "%loop%");
+        assertEquals("%loop%", placeholders.parse("%loop%"));
+    }
+
+    @Test
+    void templateWithoutReference() {
+        assertFalse(PlaceholderTemplate.compile("100% off").hasPlaceholders());
+        assertFalse(PlaceholderTemplate.compile("100%% off").hasPlaceholders());
+    }
+
+    @Test
+    void parsedStringsAreCompiledOnce() {
+        assertSame(PlaceholderTemplate.of("Hello %name%"), PlaceholderTemplate.of("Hello %name%"));
+        assertNotSame(PlaceholderTemplate.of("100% off"), PlaceholderTemplate.of("100% off"));
+    }
+
+    @Test
+    void leastRecentlyUsedTemplateIsRemoved() {
+        PlaceholderTemplate used = PlaceholderTemplate.of("%lru_used%");
+        PlaceholderTemplate unused = PlaceholderTemplate.of("%lru_unused%");
+        for (int index = 0; index < 5000; index++) {
+            PlaceholderTemplate.of("%lru_" + index + "%");
+            if (index % 100 == 0) assertSame(used, PlaceholderTemplate.of("%lru_used%"));
+        }
+        assertSame(used, PlaceholderTemplate.of("%lru_used%"));
+        assertNotSame(unused, PlaceholderTemplate.of("%lru_unused%"));
+    }
+}
@@ -0,0 +1,122 @@
+package fr.maxlego08.menu.dupe;
+
+import fr.maxlego08.menu.api.dupe.DupeManager;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Check of a player inventory by {@link PDCDupeManager}: 36 slots, 8 empty, 20 items without meta, 7 items with a
+ * meta and 1 protected item. The current check is compared with a copy of the meta for each item, like before.
+ * <p>
+ * Without a server, the items copy a set of keys as their meta, like CraftItemStack copies its meta.
+ * </p>
+ * <p>
+ * {@code mvn -Pjmh test -Djmh.benchmarks=DupeManagerBenchmark}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DupeManagerBenchmark {
+
+    private final ItemStack[] contents = new ItemStack[36];
+    private PDCDupeManager dupeManager;
+    private NamespacedKey namespacedKey;
+
+    @Setup
+    public void setup() {
+        Plugin plugin = (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(), new Class<?>[]{Plugin.class}, (proxy, method, args) -> {
+            if (method.getName().equals("getName")) return "zMenu";
+            throw new UnsupportedOperationException(method.getName());
+        });
+        this.dupeManager = new PDCDupeManager(plugin);
+        this.namespacedKey = new NamespacedKey(plugin, DupeManager.KEY);
+
+        Set<NamespacedKey> protectedKeys = new HashSet<>();
+        protectedKeys.add(this.namespacedKey);
+        for (int i = 0; i < this.contents.length; i++) {
+            if (i < 8) this.contents[i] = null;
+            else if (i < 28) this.contents[i] = new TestItemStack(Material.COBBLESTONE, null);
+            else if (i < 35) this.contents[i] = new TestItemStack(Material.DIAMOND_SWORD, new HashSet<>());
+            else this.contents[i] = new TestItemStack(Material.DIAMOND, protectedKeys);
+        }
+    }
+
+    /**
+     * The meta of each item is copied, like before
+     */
+    @Benchmark
+    public int copyMeta() {
+        int count = 0;
+        for (ItemStack itemStack : this.contents) {
+            if (itemStack == null) continue;
+            ItemMeta itemMeta = itemStack.getItemMeta();
+            if (itemMeta != null && itemMeta.getPersistentDataContainer().has(this.namespacedKey, PersistentDataType.INTEGER)) count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int isDupeItem() {
+        int count = 0;
+        for (ItemStack itemStack : this.contents) {
+            if (this.dupeManager.isDupeItem(itemStack)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * An item whose meta only contains persistent data keys, a null set for an item without meta
+     */
+    private static class TestItemStack extends ItemStack {
+
+        private final Set<NamespacedKey> keys;
+
+        private TestItemStack(Material type, Set<NamespacedKey> keys) {
+            super(type);
+            this.keys = keys;
+        }
+
+        @Override
+        public boolean hasItemMeta() {
+            return this.keys != null;
+        }
+
+        @Override
+        public ItemMeta getItemMeta() {
+            // Like CraftItemStack, an item without meta gets a new meta and a meta is always a copy
+            Set<NamespacedKey> keys = this.keys == null ? new HashSet<>() : new HashSet<>(this.keys);
+            PersistentDataContainer container = (PersistentDataContainer) Proxy.newProxyInstance(PersistentDataContainer.class.getClassLoader(), new Class<?>[]{PersistentDataContainer.class}, (proxy, method, args) -> {
+                if (method.getName().equals("has")) return keys.contains(args[0]);
+                throw new UnsupportedOperationException(method.getName());
+            });
+            return (ItemMeta) Proxy.newProxyInstance(ItemMeta.class.getClassLoader(), new Class<?>[]{ItemMeta.class}, (proxy, method, args) -> {
+                if (method.getName().equals("getPersistentDataContainer")) return container;
+                throw new UnsupportedOperationException(method.getName());
+            });
+        }
+    }
+}
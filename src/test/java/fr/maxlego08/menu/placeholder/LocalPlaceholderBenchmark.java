@@ -0,0 +1,92 @@
+package fr.maxlego08.menu.placeholder;
+
+import fr.maxlego08.menu.test.TestPlayers;
+import fr.maxlego08.menu.zcore.utils.interfaces.ReturnBiConsumer;
+import org.bukkit.OfflinePlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replace of the local placeholders of a lore line, with the placeholders of zMenu and of 30 other prefixes. The
+ * prefix tree is compared with the search of the first prefix over the list and the regex used before.
+ * <p>
+ * {@code mvn -Pjmh test -Djmh.benchmarks=LocalPlaceholderBenchmark}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalPlaceholderBenchmark {
+
+    private static final String LINE = "§7Coins: §e%zmenu_player_value_coins% §8- §7Page §e%zmenu_player_page%§7/§e%zmenu_player_max_page% §8(%player_name%)";
+    private static final String[] PREFIXES = {"player_key_exist_", "player_value_", "player_expire_format_", "player_expire_", "player_is_expired_", "argument_", "test", "player_page", "player_next_page", "player_previous_page", "player_max_page"};
+
+    private final Pattern pattern = Pattern.compile("[%]([^%]+)[%]");
+    private final List<AutoPlaceholder> autoPlaceholders = new ArrayList<>();
+    private LocalPlaceholder localPlaceholder;
+    private OfflinePlayer offlinePlayer;
+
+    @Setup
+    public void setup() {
+        this.offlinePlayer = TestPlayers.offlinePlayer(UUID.randomUUID(), "Steve");
+        this.localPlaceholder = LocalPlaceholder.getInstance();
+
+        List<String> prefixes = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            prefixes.add("addon" + i + "_");
+        }
+        for (String prefix : PREFIXES) {
+            prefixes.add(prefix);
+        }
+
+        ReturnBiConsumer<OfflinePlayer, String, String> biConsumer = (player, value) -> value;
+        for (String prefix : prefixes) {
+            this.localPlaceholder.register(prefix, biConsumer);
+            this.autoPlaceholders.add(new AutoPlaceholder(prefix, biConsumer));
+        }
+    }
+
+    /**
+     * The regex and the search over the list, like before the prefix tree
+     */
+    @Benchmark
+    public String regexAndList() {
+        String placeholder = LINE;
+        Matcher matcher = this.pattern.matcher(placeholder);
+        while (matcher.find()) {
+            String stringPlaceholder = matcher.group(0);
+            String regex = matcher.group(1).replace("zmenu_", "");
+            Optional<AutoPlaceholder> optional = this.autoPlaceholders.stream().filter(e -> regex.startsWith(e.getStartWith())).findFirst();
+            if (optional.isPresent()) {
+                AutoPlaceholder autoPlaceholder = optional.get();
+                String replace = autoPlaceholder.accept(this.offlinePlayer, regex.replace(autoPlaceholder.getStartWith(), ""));
+                if (replace != null) placeholder = placeholder.replace(stringPlaceholder, replace);
+            }
+        }
+        return placeholder;
+    }
+
+    @Benchmark
+    public String prefixTree() {
+        return this.localPlaceholder.setPlaceholders(this.offlinePlayer, LINE);
+    }
+}
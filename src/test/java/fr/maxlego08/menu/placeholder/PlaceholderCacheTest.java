@@ -0,0 +1,127 @@
+package fr.maxlego08.menu.placeholder;
+
+import fr.maxlego08.menu.save.Config;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlaceholderCacheTest {
+
+    private final PlaceholderCache cache = PlaceholderCache.getInstance();
+    private Map<String, Long> ttls;
+    private int maxSize;
+    private long evictions;
+
+    @BeforeEach
+    void setup() {
+        this.ttls = Config.cachePlaceholderAPITtl;
+        this.maxSize = Config.cachePlaceholderAPIMaxSize;
+        Config.cachePlaceholderAPITtl = new LinkedHashMap<>();
+        Config.cachePlaceholderAPITtl.put("%player_name%", -1L);
+        Config.cachePlaceholderAPITtl.put("%vault_*", 0L);
+        this.cache.clear();
+        this.evictions = this.cache.getEvictions();
+    }
+
+    @AfterEach
+    void restore() {
+        Config.cachePlaceholderAPITtl = this.ttls;
+        Config.cachePlaceholderAPIMaxSize = this.maxSize;
+        this.cache.clear();
+    }
+
+    @Test
+    void purgeOnlyRemovesThePlayer() {
+        UUID uniqueId = UUID.randomUUID();
+        UUID otherUniqueId = UUID.randomUUID();
+        this.cache.put("%player_name%", uniqueId, "steve");
+        this.cache.put("%player_name%", otherUniqueId, "alex");
+
+        this.cache.purge(uniqueId);
+        assertNull(this.cache.get("%player_name%", uniqueId));
+        assertEquals("alex", this.cache.get("%player_name%", otherUniqueId));
+    }
+
+    @Test
+    void percentSignBeforeAPlaceholder() {
+        UUID uniqueId = UUID.randomUUID();
+
+        // The vault placeholder is never cached, the lone percent signs must not hide it
+        this.cache.put("100% off, %vault_eco_balance%", uniqueId, "100% off, 10");
+        assertNull(this.cache.get("100% off, %vault_eco_balance%", uniqueId));
+
+        this.cache.put("100% off for %player_name%", uniqueId, "100% off for steve");
+        assertEquals("100% off for steve", this.cache.get("100% off for %player_name%", uniqueId));
+    }
+
+    @Test
+    void sizeIsBounded() {
+        Config.cachePlaceholderAPIMaxSize = 100;
+        UUID uniqueId = UUID.randomUUID();
+        for (int index = 0; index < 1000; index++) {
+            this.cache.put("%player_name% " + index, uniqueId, "steve " + index);
+            this.cache.put("%player_name% 0", UUID.randomUUID(), "alex");
+        }
+
+        assertTrue(this.cache.size() <= 100);
+        assertEquals("steve 999", this.cache.get("%player_name% 999", uniqueId));
+        assertNull(this.cache.get("%player_name% 0", uniqueId));
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvicted() {
+        Config.cachePlaceholderAPIMaxSize = 3;
+        UUID uniqueId = UUID.randomUUID();
+        UUID otherUniqueId = UUID.randomUUID();
+        this.cache.put("%player_name% a", uniqueId, "a");
+        this.cache.put("%player_name% b", otherUniqueId, "b");
+        this.cache.put("%player_name% c", uniqueId, "c");
+
+        // a is used again, b is now the least recently used entry
+        assertEquals("a", this.cache.get("%player_name% a", uniqueId));
+        this.cache.put("%player_name% d", uniqueId, "d");
+
+        assertEquals(3, this.cache.size());
+        assertNull(this.cache.get("%player_name% b", otherUniqueId));
+        assertEquals("a", this.cache.get("%player_name% a", uniqueId));
+        assertEquals("c", this.cache.get("%player_name% c", uniqueId));
+        assertEquals("d", this.cache.get("%player_name% d", uniqueId));
+    }
+
+    @Test
+    void replacedEntryIsCountedOnce() {
+        Config.cachePlaceholderAPIMaxSize = 10;
+        UUID uniqueId = UUID.randomUUID();
+        for (int index = 0; index < 9; index++) {
+            this.cache.put("%player_name% " + index, uniqueId, "steve");
+        }
+        for (int index = 0; index < 1000; index++) {
+            this.cache.put("%player_name% hot", uniqueId, "steve " + index);
+        }
+
+        assertEquals(10, this.cache.size());
+        assertEquals("steve", this.cache.get("%player_name% 0", uniqueId));
+        assertEquals(0, this.cache.getEvictions() - this.evictions);
+    }
+
+    @Test
+    void clearResetsTheSize() {
+        UUID uniqueId = UUID.randomUUID();
+        this.cache.put("%player_name%", uniqueId, "steve");
+        this.cache.put("%player_name%", UUID.randomUUID(), "alex");
+        this.cache.clear();
+
+        assertEquals(0, this.cache.size());
+        assertNull(this.cache.get("%player_name%", uniqueId));
+        this.cache.put("%player_name%", uniqueId, "steve");
+        assertEquals(1, this.cache.size());
+    }
+}
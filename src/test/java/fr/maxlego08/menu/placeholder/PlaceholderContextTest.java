@@ -0,0 +1,62 @@
+package fr.maxlego08.menu.placeholder;
+
+import fr.maxlego08.menu.test.TestPlayers;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PlaceholderContextTest {
+
+    private final List<String> requested = new ArrayList<>();
+
+    private String resolve(String string) {
+        PlaceholderContext context = new PlaceholderContext(TestPlayers.offlinePlayer(UUID.randomUUID(), "Maxlego08"));
+        return context.resolve(string, token -> {
+            this.requested.add(token);
+            return token.equals("%player_name%") ? "Maxlego08" : null;
+        });
+    }
+
+    @Test
+    void percentSignBeforeAPlaceholder() {
+        assertEquals("100% off for Maxlego08", this.resolve("100% off for %player_name%"));
+        assertEquals("100%% off for Maxlego08", this.resolve("100%% off for %player_name%"));
+        assertEquals("50%Maxlego08", this.resolve("50%%player_name%"));
+        assertEquals("5%, Maxlego08 95%", this.resolve("5%, %player_name% 95%"));
+        assertEquals(4, this.requested.size());
+    }
+
+    @Test
+    void placeholderWithoutParams() {
+        assertEquals("%online% and Maxlego08", this.resolve("%online% and %player_name%"));
+        assertEquals(2, this.requested.size());
+    }
+
+    @Test
+    void paramsCanContainSpaces() {
+        this.resolve("%math_1 + 1%");
+        assertEquals("%math_1 + 1%", this.requested.get(0));
+    }
+
+    @Test
+    void placeholderIsResolvedOnce() {
+        PlaceholderContext context = new PlaceholderContext(TestPlayers.offlinePlayer(UUID.randomUUID(), "Maxlego08"));
+        context.resolve("%player_name% %player_name%", token -> "Maxlego08");
+        context.resolve("%player_name%", token -> "Maxlego08");
+        assertEquals(1, context.getResolved());
+        assertEquals(2, context.getReused());
+    }
+
+    @Test
+    void scanner() {
+        assertEquals(-1, PlaceholderScanner.findEnd("100% off", 3));
+        assertEquals(-1, PlaceholderScanner.findEnd("%%", 0));
+        assertEquals(-1, PlaceholderScanner.findEnd("%_name%", 0));
+        assertEquals(-1, PlaceholderScanner.findEnd("%player_name", 0));
+        assertEquals(12, PlaceholderScanner.findEnd("%player_name%", 0));
+    }
+}
@@ -0,0 +1,171 @@
+package fr.maxlego08.menu.players;
+
+import fr.maxlego08.menu.api.players.Data;
+import fr.maxlego08.menu.api.players.DataType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZDataTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    void deduceTheType() {
+        assertEquals(DataType.LONG, DataType.of("5"));
+        assertEquals(DataType.DOUBLE, DataType.of("5.0"));
+        assertEquals(DataType.DOUBLE, DataType.of("0.25"));
+        assertEquals(DataType.STRING, DataType.of("007"));
+        assertEquals(DataType.STRING, DataType.of("steve"));
+        assertEquals(DataType.LONG, DataType.of(5));
+        assertEquals(DataType.DOUBLE, DataType.of(5.0));
+        assertEquals(DataType.BOOLEAN, DataType.of(true));
+    }
+
+    @Test
+    void legacyDecimalStaysADouble() {
+        ZData data = new ZData("coins", "5.0", 0);
+        assertEquals(DataType.DOUBLE, data.getType());
+        data.add(1);
+        assertEquals(6.0, data.getValue());
+
+        ZData string = new ZData("coins", DataType.STRING, "2.0", 0);
+        string.add(1);
+        assertEquals(3.0, string.getValue());
+    }
+
+    @Test
+    void defaultTypeOfAnotherData() {
+        Data data = new Data() {
+            @Override
+            public String getKey() {
+                return "coins";
+            }
+
+            @Override
+            public Object getValue() {
+                return 1.5;
+            }
+
+            @Override
+            public long getExpiredAt() {
+                return 0;
+            }
+
+            @Override
+            public boolean isExpired() {
+                return false;
+            }
+
+            @Override
+            public void add(int amount) {
+            }
+
+            @Override
+            public void remove(int amount) {
+            }
+        };
+        assertEquals(DataType.DOUBLE, data.getType());
+    }
+
+    @Test
+    void concurrentAdds() throws Exception {
+        ZData data = new ZData("coins", 0L, 0);
+        int adds = 100_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int index = 0; index < adds; index++) data.add(1);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(DataType.LONG, data.getType());
+        assertEquals((long) THREADS * adds, data.getValue());
+    }
+
+    /**
+     * A string which becomes a number is never read with the type of the number and the old value
+     */
+    @Test
+    void readersNeverSeeAHalfWrittenValue() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int iteration = 0; iteration < 2_000; iteration++) {
+
+                ZData data = new ZData("coins", DataType.STRING, "100", 0);
+                AtomicBoolean done = new AtomicBoolean();
+                CountDownLatch start = new CountDownLatch(1);
+
+                List<Future<Boolean>> readers = new ArrayList<>();
+                for (int thread = 0; thread < THREADS - 1; thread++) {
+                    readers.add(executor.submit(() -> {
+                        start.await();
+                        boolean valid = true;
+                        while (!done.get()) {
+                            Object value = data.getValue();
+                            valid &= "100".equals(value) || Long.valueOf(101).equals(value) || Double.valueOf(100.5).equals(value);
+                        }
+                        return valid;
+                    }));
+                }
+
+                start.countDown();
+                data.add(1);
+                data.add(-0.5);
+                done.set(true);
+
+                for (Future<Boolean> reader : readers) assertTrue(reader.get(30, TimeUnit.SECONDS));
+                assertEquals(100.5, data.getValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void mixedAdds() throws Exception {
+        ZData data = new ZData("ratio", 0L, 0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                boolean decimal = thread % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    for (int index = 0; index < 10_000; index++) {
+                        if (decimal) data.add(0.5);
+                        else data.add(1L);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(DataType.DOUBLE, data.getType());
+        assertEquals(THREADS / 2 * 10_000 * 1.5, (double) data.getValue(), 0.0001);
+    }
+}
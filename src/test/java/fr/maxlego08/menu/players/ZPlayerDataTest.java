@@ -0,0 +1,53 @@
+package fr.maxlego08.menu.players;
+
+import fr.maxlego08.menu.api.players.DataType;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZPlayerDataTest {
+
+    private static ZPlayerData stored(UUID uniqueId) {
+        ZPlayerData stored = new ZPlayerData(uniqueId);
+        stored.addData(new ZData("coins", DataType.LONG, 100L, 0));
+        stored.addData(new ZData("rank", DataType.STRING, "vip", 0));
+        stored.addData(new ZData("kills", DataType.LONG, 7L, 0));
+        return stored;
+    }
+
+    @Test
+    void changesMadeWhileLoadingAreKept() {
+        UUID uniqueId = UUID.randomUUID();
+        ZPlayerData playerData = ZPlayerData.loading(uniqueId);
+        assertTrue(playerData.isLoading());
+
+        ZData coins = new ZData("coins", DataType.LONG, 5L, 0);
+        playerData.addData(coins);
+        coins.add(3L);
+        playerData.removeData("rank");
+
+        playerData.mergeAbsent(stored(uniqueId));
+
+        assertFalse(playerData.isLoading());
+        assertEquals(8L, playerData.getData("coins").orElseThrow(AssertionError::new).getValue());
+        assertFalse(playerData.getData("rank").isPresent());
+        assertEquals(7L, playerData.getData("kills").orElseThrow(AssertionError::new).getValue());
+    }
+
+    @Test
+    void loadedPlayerOnlyAddsTheMissingKeys() {
+        UUID uniqueId = UUID.randomUUID();
+        ZPlayerData playerData = new ZPlayerData(uniqueId);
+        playerData.removeData("rank");
+
+        playerData.mergeAbsent(stored(uniqueId));
+
+        assertFalse(playerData.isLoading());
+        assertEquals(100L, playerData.getData("coins").orElseThrow(AssertionError::new).getValue());
+        assertTrue(playerData.getData("rank").isPresent());
+    }
+}
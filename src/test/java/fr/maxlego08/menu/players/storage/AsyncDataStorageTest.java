@@ -0,0 +1,89 @@
+package fr.maxlego08.menu.players.storage;
+
+import fr.maxlego08.menu.api.players.DataType;
+import fr.maxlego08.menu.players.ZData;
+import fr.maxlego08.menu.players.ZPlayerData;
+import fr.maxlego08.menu.test.SilentLogger;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncDataStorageTest {
+
+    @Test
+    void failedWriteIsWrittenAgain() throws Exception {
+        SilentLogger.install();
+        FailingStorage storage = new FailingStorage(2);
+        storage.start();
+        try {
+            UUID uniqueId = UUID.randomUUID();
+            UUID otherUniqueId = UUID.randomUUID();
+            storage.set(uniqueId, new ZData("coins", DataType.LONG, 1L, 0));
+            storage.requestSave();
+
+            // The failed changes are kept, and written before the next ones
+            long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(2);
+            while (storage.failures.get() < 1 && System.currentTimeMillis() < end) Thread.sleep(10);
+            assertTrue(storage.hasUnwrittenChanges(uniqueId));
+            storage.set(otherUniqueId, new ZData("coins", DataType.LONG, 2L, 0));
+
+            end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+            while (storage.hasUnwrittenChanges(uniqueId) && System.currentTimeMillis() < end) Thread.sleep(10);
+
+            assertFalse(storage.hasUnwrittenChanges(uniqueId));
+            assertFalse(storage.hasUnwrittenChanges(otherUniqueId));
+            assertEquals(uniqueId, storage.written.get(0));
+            assertEquals(otherUniqueId, storage.written.get(1));
+        } finally {
+            storage.close();
+        }
+    }
+
+    private static class FailingStorage extends AsyncDataStorage {
+
+        private final AtomicInteger failures = new AtomicInteger();
+        private final List<UUID> written = new ArrayList<>();
+        private final int failedWrites;
+
+        private FailingStorage(int failedWrites) {
+            super(null, "test storage");
+            this.failedWrites = failedWrites;
+        }
+
+        @Override
+        protected void write(List<Entry> entries) throws Exception {
+            if (this.failures.get() < this.failedWrites) {
+                this.failures.incrementAndGet();
+                throw new SQLException("database is down");
+            }
+            entries.forEach(entry -> this.written.add(entry.getUniqueId()));
+        }
+
+        @Override
+        protected void flush(boolean force) {
+        }
+
+        @Override
+        protected ZPlayerData read(UUID uniqueId) {
+            return null;
+        }
+
+        @Override
+        public void load() {
+        }
+
+        @Override
+        public boolean isLazy() {
+            return true;
+        }
+    }
+}
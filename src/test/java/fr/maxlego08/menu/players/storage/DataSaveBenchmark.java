@@ -0,0 +1,141 @@
+package fr.maxlego08.menu.players.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+import fr.maxlego08.menu.api.players.DataType;
+import fr.maxlego08.menu.test.SilentLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to make a batch of player data changes durable: appended to the journal of {@link JsonDataStorage}, written
+ * in SQLite by {@link SqlDataStorage}, or by rewriting the whole players.json like before the journal. The snapshot
+ * has the same shape as players.json and is synced like {@link fr.maxlego08.menu.zcore.utils.storage.Persist}.
+ * <p>
+ * {@code mvn -Pjmh test -Djmh.benchmarks=DataSaveBenchmark}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataSaveBenchmark {
+
+    @Param({"10000"})
+    private int players;
+
+    @Param({"1", "100"})
+    private int batchSize;
+
+    private File folder;
+    private JsonDataStorage jsonStorage;
+    private SqlDataStorage sqlStorage;
+    private List<AsyncDataStorage.Entry> batch;
+    private Map<UUID, Map<String, Map<String, Object>>> snapshot;
+    private Gson gson;
+    private long value;
+
+    @Setup
+    public void setup() throws IOException {
+        SilentLogger.install();
+        this.folder = Files.createTempDirectory("zmenu-data").toFile();
+        this.jsonStorage = new JsonDataStorage(null, null, this.folder);
+        this.sqlStorage = new SqlDataStorage(this.folder, null, StorageType.SQLITE);
+        this.sqlStorage.load();
+        this.gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().serializeNulls().create();
+
+        this.snapshot = new HashMap<>();
+        for (int i = 0; i < this.players; i++) {
+            Map<String, Map<String, Object>> datas = new HashMap<>();
+            for (int j = 0; j < 5; j++) {
+                Map<String, Object> data = new HashMap<>();
+                data.put("key", "key-" + j);
+                data.put("type", DataType.LONG.name());
+                data.put("value", (long) i * j);
+                data.put("expiredAt", 0L);
+                datas.put("key-" + j, data);
+            }
+            this.snapshot.put(UUID.randomUUID(), datas);
+        }
+
+        List<UUID> uniqueIds = new ArrayList<>(this.snapshot.keySet());
+        this.batch = new ArrayList<>(this.batchSize);
+        for (int i = 0; i < this.batchSize; i++) {
+            this.batch.add(new AsyncDataStorage.Entry(AsyncDataStorage.Operation.SET, uniqueIds.get(i % uniqueIds.size()), "coins", DataType.LONG, (long) i, 0));
+        }
+    }
+
+    /**
+     * The journal is truncated like after a snapshot, so it doesn't grow during the whole run
+     */
+    @Setup(Level.Iteration)
+    public void truncateJournal() throws IOException {
+        this.jsonStorage.onClose();
+        new FileOutputStream(new File(this.folder, "players.journal"), false).close();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.jsonStorage.onClose();
+        this.sqlStorage.close();
+        File[] files = this.folder.listFiles();
+        if (files != null) {
+            for (File file : files) file.delete();
+        }
+        this.folder.delete();
+    }
+
+    @Benchmark
+    public void journal() throws IOException {
+        this.jsonStorage.write(this.batch);
+    }
+
+    @Benchmark
+    public void sqlite() throws Exception {
+        this.sqlStorage.write(this.batch);
+    }
+
+    @Benchmark
+    public void rewriteSnapshot() throws IOException {
+        // The changes of the batch are in memory, only the file is written
+        Map<String, Map<String, Object>> datas = this.snapshot.values().iterator().next();
+        datas.get("key-0").put("value", this.value++);
+
+        File file = new File(this.folder, "players.json");
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            JsonWriter jsonWriter = new JsonWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024));
+            jsonWriter.setIndent("  ");
+            this.gson.toJson(this.snapshot, Map.class, jsonWriter);
+            jsonWriter.flush();
+            outputStream.getFD().sync();
+        }
+    }
+}
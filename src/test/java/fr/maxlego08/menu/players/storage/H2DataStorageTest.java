@@ -0,0 +1,9 @@
+package fr.maxlego08.menu.players.storage;
+
+class H2DataStorageTest extends SqlDataStorageTest {
+
+    @Override
+    protected StorageType getType() {
+        return StorageType.H2;
+    }
+}
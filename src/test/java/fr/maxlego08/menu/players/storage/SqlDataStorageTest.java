@@ -0,0 +1,118 @@
+package fr.maxlego08.menu.players.storage;
+
+import fr.maxlego08.menu.api.players.Data;
+import fr.maxlego08.menu.api.players.DataType;
+import fr.maxlego08.menu.players.ZData;
+import fr.maxlego08.menu.players.ZPlayerData;
+import fr.maxlego08.menu.test.SilentLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Write and read the player data with an embedded database, run for each database by the subclasses
+ */
+abstract class SqlDataStorageTest {
+
+    @TempDir
+    File folder;
+
+    private SqlDataStorage storage;
+
+    protected abstract StorageType getType();
+
+    @BeforeEach
+    void open() {
+        SilentLogger.install();
+        this.storage = new SqlDataStorage(this.folder, null, this.getType());
+        this.storage.load();
+    }
+
+    @AfterEach
+    void close() {
+        this.storage.close();
+    }
+
+    private ZPlayerData load(UUID uniqueId) throws Exception {
+        return this.storage.loadPlayer(uniqueId).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void writeAndRead() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        this.storage.set(uniqueId, new ZData("coins", DataType.LONG, 5L, 0));
+        this.storage.set(uniqueId, new ZData("ratio", DataType.DOUBLE, 0.5, 0));
+        this.storage.set(uniqueId, new ZData("name", DataType.STRING, "007", 0));
+
+        ZPlayerData playerData = this.load(uniqueId);
+        Data coins = playerData.getData("coins").orElseThrow(AssertionError::new);
+        assertEquals(DataType.LONG, coins.getType());
+        assertEquals(5L, ((Number) coins.getValue()).longValue());
+        assertEquals(DataType.DOUBLE, playerData.getData("ratio").orElseThrow(AssertionError::new).getType());
+        assertEquals("007", playerData.getData("name").orElseThrow(AssertionError::new).getValue());
+        assertFalse(this.storage.hasUnwrittenChanges(uniqueId));
+    }
+
+    @Test
+    void batchKeepsTheLastChange() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        this.storage.batch(() -> {
+            this.storage.set(uniqueId, new ZData("coins", DataType.LONG, 1L, 0));
+            this.storage.set(uniqueId, new ZData("coins", DataType.LONG, 2L, 0));
+            this.storage.set(uniqueId, new ZData("removed", DataType.LONG, 3L, 0));
+            this.storage.remove(uniqueId, "removed");
+        });
+
+        ZPlayerData playerData = this.load(uniqueId);
+        assertEquals(2L, ((Number) playerData.getData("coins").orElseThrow(AssertionError::new).getValue()).longValue());
+        assertFalse(playerData.getData("removed").isPresent());
+    }
+
+    @Test
+    void failedBatchIsNotWritten() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        try {
+            this.storage.batch(() -> {
+                this.storage.set(uniqueId, new ZData("coins", DataType.LONG, 1L, 0));
+                throw new IllegalStateException();
+            });
+        } catch (IllegalStateException ignored) {
+        }
+
+        assertNull(this.load(uniqueId));
+        assertFalse(this.storage.hasUnwrittenChanges(uniqueId));
+    }
+
+    @Test
+    void clearPlayer() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        UUID otherUniqueId = UUID.randomUUID();
+        this.storage.set(uniqueId, new ZData("coins", DataType.LONG, 1L, 0));
+        this.storage.set(otherUniqueId, new ZData("coins", DataType.LONG, 1L, 0));
+        this.storage.clear(uniqueId);
+
+        assertNull(this.load(uniqueId));
+        assertTrue(this.load(otherUniqueId).getData("coins").isPresent());
+    }
+
+    @Test
+    void dataIsKeptAfterClose() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        this.storage.set(uniqueId, new ZData("coins", DataType.LONG, 7L, 0));
+        this.storage.close();
+
+        this.storage = new SqlDataStorage(this.folder, null, this.getType());
+        this.storage.load();
+        assertEquals(7L, ((Number) this.load(uniqueId).getData("coins").orElseThrow(AssertionError::new).getValue()).longValue());
+    }
+}
@@ -0,0 +1,9 @@
+package fr.maxlego08.menu.players.storage;
+
+class SqliteDataStorageTest extends SqlDataStorageTest {
+
+    @Override
+    protected StorageType getType() {
+        return StorageType.SQLITE;
+    }
+}
@@ -0,0 +1,25 @@
+package fr.maxlego08.menu.test;
+
+import fr.maxlego08.menu.zcore.logger.Logger;
+
+/**
+ * Logger without Bukkit, the messages are dropped
+ */
+public class SilentLogger extends Logger {
+
+    private SilentLogger() {
+        super("test");
+    }
+
+    public static void install() {
+        new SilentLogger();
+    }
+
+    @Override
+    public void log(String message, LogType type) {
+    }
+
+    @Override
+    public void log(String message) {
+    }
+}
@@ -0,0 +1,32 @@
+package fr.maxlego08.menu.test;
+
+import org.bukkit.OfflinePlayer;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+
+/**
+ * Players without a server, only the uuid and the name are available
+ */
+public final class TestPlayers {
+
+    private TestPlayers() {
+    }
+
+    public static OfflinePlayer offlinePlayer(UUID uniqueId, String name) {
+        return (OfflinePlayer) Proxy.newProxyInstance(OfflinePlayer.class.getClassLoader(), new Class<?>[]{OfflinePlayer.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uniqueId;
+                case "getName":
+                    return name;
+                case "hashCode":
+                    return uniqueId.hashCode();
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+}
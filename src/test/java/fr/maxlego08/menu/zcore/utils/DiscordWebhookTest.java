@@ -0,0 +1,114 @@
+package fr.maxlego08.menu.zcore.utils;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The webhook is sent to a local HTTP server which answers like Discord
+ */
+class DiscordWebhookTest {
+
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+    private final AtomicInteger rateLimits = new AtomicInteger();
+    private volatile int code = 204;
+    private volatile String retryAfter;
+    private HttpServer server;
+    private String url;
+
+    @BeforeEach
+    void start() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext("/webhook", exchange -> {
+            this.bodies.add(read(exchange.getRequestBody()));
+
+            int code = this.code;
+            if (this.rateLimits.getAndDecrement() > 0) {
+                code = 429;
+                if (this.retryAfter != null) exchange.getResponseHeaders().add("Retry-After", this.retryAfter);
+            }
+            exchange.sendResponseHeaders(code, -1);
+            exchange.close();
+        });
+        this.server.start();
+        this.url = "http://127.0.0.1:" + this.server.getAddress().getPort() + "/webhook";
+    }
+
+    @AfterEach
+    void stop() {
+        this.server.stop(0);
+    }
+
+    @Test
+    void sendsOneEmbedPerDescription() throws IOException {
+        DiscordWebhook webhook = new DiscordWebhook(this.url);
+        webhook.setUsername("zMenu");
+
+        assertEquals(0, webhook.execute(Arrays.asList("**Steve** use 64 diamond", "say \"hi\"\n")));
+
+        assertEquals(1, this.bodies.size());
+        String body = this.bodies.get(0);
+        assertTrue(body.contains("\"username\":\"zMenu\""), body);
+        assertTrue(body.contains("{\"description\":\"**Steve** use 64 diamond\"}"), body);
+        assertTrue(body.contains("{\"description\":\"say \\\"hi\\\"\\n\"}"), body);
+    }
+
+    @Test
+    void rateLimitReturnsTheDelayThenTheRetryIsSent() throws IOException {
+        DiscordWebhook webhook = new DiscordWebhook(this.url);
+        this.rateLimits.set(1);
+        this.retryAfter = "1.5";
+
+        assertEquals(1500, webhook.execute(Collections.singletonList("alert")));
+        assertEquals(0, webhook.execute(Collections.singletonList("alert")));
+        assertEquals(2, this.bodies.size());
+    }
+
+    @Test
+    void rateLimitWithoutDelayWaitsOneSecond() throws IOException {
+        this.rateLimits.set(1);
+
+        assertEquals(1000, new DiscordWebhook(this.url).execute(Collections.singletonList("alert")));
+    }
+
+    @Test
+    void errorIsThrown() {
+        this.code = 500;
+
+        assertThrows(IOException.class, () -> new DiscordWebhook(this.url).execute(Collections.singletonList("alert")));
+    }
+
+    @Test
+    void unreachableServerIsThrown() {
+        this.server.stop(0);
+
+        assertThrows(IOException.class, () -> new DiscordWebhook(this.url).execute(Collections.singletonList("alert")));
+    }
+
+    private static String read(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int length;
+        while ((length = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, length);
+        }
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,107 @@
+package fr.maxlego08.menu.zcore.utils.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import fr.maxlego08.menu.test.SilentLogger;
+import fr.maxlego08.menu.zcore.logger.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Save and load of a players.json of about 100 MB by {@link Persist}, with and without gzip. A save writes the
+ * temporary file, syncs it then moves it over the previous file. The allocations are reported by the gc profiler of
+ * the jmh profile.
+ * <p>
+ * {@code mvn -Pjmh test -Djmh.benchmarks=PersistBenchmark}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PersistBenchmark {
+
+    // 200 000 players of 5 values, about 100 MB once indented
+    @Param({"200000"})
+    private int players;
+
+    @Param({"false", "true"})
+    private boolean compress;
+
+    private Persist persist;
+    private Document document;
+    private File folder;
+    private File file;
+
+    @Setup
+    public void setup() throws IOException {
+        SilentLogger.install();
+        Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().serializeNulls()
+                .excludeFieldsWithModifiers(Modifier.TRANSIENT, Modifier.VOLATILE).create();
+        this.folder = Files.createTempDirectory("zmenu-persist").toFile();
+        this.persist = new Persist(this.folder, gson, Logger.getLogger());
+        this.file = this.persist.getFile("players");
+
+        this.document = new Document();
+        for (int i = 0; i < this.players; i++) {
+            Map<String, String> datas = new HashMap<>();
+            for (int j = 0; j < 5; j++) {
+                datas.put("key-" + j, UUID.randomUUID() + "-" + UUID.randomUUID());
+            }
+            this.document.players.put(UUID.randomUUID(), datas);
+        }
+
+        this.save();
+        System.out.println(this.file.getName() + ": " + this.file.length() / (1024 * 1024) + " MB");
+    }
+
+    @TearDown
+    public void tearDown() {
+        File[] files = this.folder.listFiles();
+        if (files != null) {
+            for (File file : files) file.delete();
+        }
+        this.folder.delete();
+    }
+
+    @Benchmark
+    public void save() {
+        if (!this.persist.save(this.document, this.file, this.compress)) {
+            throw new IllegalStateException("Unable to save " + this.file);
+        }
+    }
+
+    @Benchmark
+    public Document load() {
+        return this.persist.load(Document.class, this.file);
+    }
+
+    /**
+     * Values of the players, with the same shape as players.json
+     */
+    public static class Document {
+
+        private final Map<UUID, Map<String, String>> players = new HashMap<>();
+    }
+}